@@ -0,0 +1,117 @@
+package com.enterprise.java.benchmarks.streaming;
+
+import com.enterprise.java.streaming.flink.AlertEventSerializer;
+import com.enterprise.java.streaming.flink.UserEventParser;
+import com.enterprise.java.streaming.model.AlertEvent;
+import com.enterprise.java.streaming.model.UserEvent;
+import com.enterprise.java.streaming.util.KafkaEventDeserializer;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.api.common.functions.util.RuntimeUDFContext;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.SimpleUserCodeClassLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event decode and encode paths of the streaming pipeline: the shared Kafka
+ * deserializer, the Flink parser operator (including its metric updates) and the
+ * alert serializer. Payloads rotate through a pool so no single input gets folded.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class StreamingHotPathBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String[] EVENT_TYPES = {"USER_LOGIN", "USER_LOGIN_FAILED", "PAGE_VIEW", "USER_UPDATED"};
+
+    private String[] payloads;
+    private byte[][] payloadBytes;
+    private AlertEvent[] alerts;
+    private int next;
+
+    private KafkaEventDeserializer deserializer;
+    private UserEventParser parser;
+    private AlertEventSerializer alertSerializer;
+
+    @Setup
+    public void setUp() {
+        payloads = new String[POOL_SIZE];
+        payloadBytes = new byte[POOL_SIZE][];
+        alerts = new AlertEvent[POOL_SIZE];
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            payloads[i] = "{\"userId\":\"user-" + (i % 97) + "\","
+                    + "\"eventType\":\"" + EVENT_TYPES[i % EVENT_TYPES.length] + "\","
+                    + "\"timestamp\":\"" + TIMESTAMP_FORMAT.format(now.plusSeconds(i)) + "\","
+                    + "\"metadata\":{\"source\":\"user-service\",\"version\":\"1.0\",\"correlationId\":\"c-" + i + "\"},"
+                    + "\"sessionId\":\"session-" + (i % 31) + "\","
+                    + "\"ipAddress\":\"10.0." + (i % 255) + "." + (i % 7) + "\"}";
+            payloadBytes[i] = payloads[i].getBytes(StandardCharsets.UTF_8);
+            alerts[i] = AlertEvent.builder()
+                    .alertId("alert-" + i)
+                    .userId("user-" + (i % 97))
+                    .alertType("SUSPICIOUS_LOGIN_PATTERN")
+                    .description("Multiple failed login attempts detected")
+                    .timestamp(now.plusSeconds(i))
+                    .severity("HIGH")
+                    .eventCount(3 + i % 5)
+                    .build();
+        }
+
+        deserializer = new KafkaEventDeserializer();
+        // The parser runs through its regular open() against a context with discarded metrics
+        parser = new UserEventParser();
+        parser.setRuntimeContext(new RuntimeUDFContext(
+                new TaskInfo("benchmark", 1, 0, 1, 0),
+                SimpleUserCodeClassLoader.create(getClass().getClassLoader()),
+                new ExecutionConfig(),
+                new HashMap<>(),
+                new HashMap<>(),
+                UnregisteredMetricsGroup.createOperatorMetricGroup()));
+        parser.open(new Configuration());
+        alertSerializer = new AlertEventSerializer();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (POOL_SIZE - 1);
+        return next;
+    }
+
+    @Benchmark
+    public UserEvent kafkaEventDeserializer() {
+        return deserializer.deserialize("user-events", payloadBytes[nextIndex()]);
+    }
+
+    @Benchmark
+    public UserEvent userEventParser() throws Exception {
+        int i = nextIndex();
+        return parser.map(Tuple2.of(payloads[i], 1_714_564_800_000L + i));
+    }
+
+    @Benchmark
+    public byte[] alertEventSerializer() {
+        return alertSerializer.serialize(alerts[nextIndex()]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.enterprise.java.benchmarks.streaming;
+
+import com.enterprise.java.streaming.flink.UserActivityAggregator;
+import com.enterprise.java.streaming.model.UserEvent;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window aggregation in {@link UserActivityAggregator}: {@code add} is measured per
+ * event while filling a fresh accumulator for one user's window, {@code merge} per
+ * pair of filled accumulators (session-window and two-phase aggregation path).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class UserActivityAggregatorBenchmark {
+
+    private static final int EVENTS_PER_WINDOW = 256;
+    private static final String[] EVENT_TYPES = {"USER_LOGIN", "USER_LOGIN_FAILED", "PAGE_VIEW", "USER_UPDATED"};
+
+    @Param({"4", "64"})
+    public int sessionsPerWindow;
+
+    // Seen through AggregateFunction, since the accumulator class is internal to the flink package
+    private AggregateFunction<UserEvent, Object, ?> aggregator;
+    private UserEvent[] window;
+    private Object left;
+    private Object right;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        aggregator = (AggregateFunction<UserEvent, Object, ?>) (AggregateFunction<UserEvent, ?, ?>) new UserActivityAggregator();
+        window = new UserEvent[EVENTS_PER_WINDOW];
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+        for (int i = 0; i < EVENTS_PER_WINDOW; i++) {
+            window[i] = UserEvent.builder()
+                    .userId("user-42")
+                    .eventType(EVENT_TYPES[i % EVENT_TYPES.length])
+                    .timestamp(start.plusSeconds(i))
+                    .sessionId("session-" + (i % sessionsPerWindow))
+                    .ipAddress("10.0.0.1")
+                    .build();
+        }
+        left = fill(0, EVENTS_PER_WINDOW / 2);
+        right = fill(EVENTS_PER_WINDOW / 2, EVENTS_PER_WINDOW);
+    }
+
+    private Object fill(int from, int to) {
+        Object accumulator = aggregator.createAccumulator();
+        for (int i = from; i < to; i++) {
+            accumulator = aggregator.add(window[i], accumulator);
+        }
+        return accumulator;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_WINDOW)
+    public Object add() {
+        return fill(0, EVENTS_PER_WINDOW);
+    }
+
+    @Benchmark
+    public Object merge() {
+        return aggregator.merge(left, right);
+    }
+}
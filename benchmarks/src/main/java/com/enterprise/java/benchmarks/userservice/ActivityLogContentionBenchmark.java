@@ -0,0 +1,108 @@
+package com.enterprise.java.benchmarks.userservice;
+
+import com.enterprise.portfolio.userservice.service.RealTimeMetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording activity from 64 request threads at once. {@code ring*} runs the
+ * {@link RealTimeMetricsService} ring buffer, {@code locked*} the previous
+ * synchronized front-inserted list, so one run shows both. The {@code *WithReader}
+ * groups add one thread polling the activity log as the dashboard does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ActivityLogContentionBenchmark {
+
+    private RealTimeMetricsService service;
+    private SynchronizedActivityLog locked;
+    private String key;
+
+    @Setup
+    public void setUp() {
+        service = new RealTimeMetricsService(new SimpleMeterRegistry());
+        locked = new SynchronizedActivityLog();
+        key = "user:42";
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void ringRecordCacheHit() {
+        service.recordCacheHit(key);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void lockedRecordCacheHit() {
+        locked.add("CACHE_HIT", "Cache hit for key: " + key, "success");
+    }
+
+    @Benchmark
+    @Group("ringWithReader")
+    @GroupThreads(63)
+    public void ringWriter() {
+        service.recordRedisOperation("SET", key);
+    }
+
+    @Benchmark
+    @Group("ringWithReader")
+    @GroupThreads(1)
+    public List<RealTimeMetricsService.ActivityLogEntry> ringReader() {
+        return service.getRecentActivity();
+    }
+
+    @Benchmark
+    @Group("lockedWithReader")
+    @GroupThreads(63)
+    public void lockedWriter() {
+        locked.add("REDIS_OPERATION", "SET on key: " + key, "info");
+    }
+
+    @Benchmark
+    @Group("lockedWithReader")
+    @GroupThreads(1)
+    public List<RealTimeMetricsService.ActivityLogEntry> lockedReader() {
+        return locked.snapshot();
+    }
+
+    /**
+     * The activity log as it was before the ring buffer, kept here as the baseline.
+     */
+    static final class SynchronizedActivityLog {
+        private static final int MAX_ACTIVITY_ENTRIES = 100;
+        private final List<RealTimeMetricsService.ActivityLogEntry> entries = new ArrayList<>();
+
+        synchronized void add(String type, String message, String level) {
+            entries.add(0, new RealTimeMetricsService.ActivityLogEntry(
+                    System.currentTimeMillis(), LocalDateTime.now(), type, message, level));
+            while (entries.size() > MAX_ACTIVITY_ENTRIES) {
+                entries.remove(entries.size() - 1);
+            }
+        }
+
+        synchronized List<RealTimeMetricsService.ActivityLogEntry> snapshot() {
+            return new ArrayList<>(entries);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.enterprise.java.benchmarks.userservice;
+
+import com.enterprise.portfolio.userservice.config.CompactCacheSerializer;
+import com.enterprise.portfolio.userservice.domain.User;
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached search results through the previous JSON serializer and the compact codec.
+ * The serialize benchmarks report the encoded size as {@code encodedBytes}, for comparison
+ * of Redis memory per entry.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class CacheCodecBenchmark {
+
+    @Param({"1", "20"})
+    public int results;
+
+    private GenericJackson2JsonRedisSerializer json;
+    private CompactCacheSerializer compact;
+    private List<UserResponse> value;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    /**
+     * Size of the last encoded value, reported next to the score of each serialize benchmark.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class EncodedSize {
+        public long encodedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        json = new GenericJackson2JsonRedisSerializer();
+        compact = new CompactCacheSerializer(json);
+        value = new ArrayList<>(results);
+        LocalDateTime created = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+        for (int i = 0; i < results; i++) {
+            User user = new User((long) i, "user" + i, "user" + i + "@example.com", "$2a$10$hash",
+                "First" + i, "Last" + i, null, true, i % 2 == 0, "[\"USER\"]", created, created, 0L);
+            value.add(UserResponse.fromUser(user));
+        }
+        jsonBytes = json.serialize(value);
+        compactBytes = compact.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize(EncodedSize size) {
+        byte[] bytes = json.serialize(value);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] compactSerialize(EncodedSize size) {
+        byte[] bytes = compact.serialize(value);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+}
@@ -0,0 +1,65 @@
+package com.enterprise.java.benchmarks.userservice;
+
+import com.enterprise.portfolio.userservice.domain.User;
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import com.enterprise.portfolio.userservice.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the user service: verifying a bearer token and expanding the
+ * stored roles column, both executed on every authenticated request. Tokens go through
+ * the public {@link JwtService} entry points: {@code validateToken} is the signature and
+ * issuer check alone, {@code getAllClaimsFromToken} adds reading every claim.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class UserServiceHotPathBenchmark {
+
+    @Param({"[\"USER\"]", "[\"USER\",\"ADMIN\",\"MODERATOR\"]"})
+    public String roles;
+
+    private JwtService jwtService;
+    private String token;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("benchmark-secret-0123456789-0123456789-0123456789", 3_600_000L, "user-service");
+        user = new User(42L, "jane.doe", "jane.doe@example.com", "$2a$10$hash", "Jane", "Doe",
+                null, true, true, roles, null, null, 0L);
+        token = jwtService.generateToken(UserResponse.fromUser(user));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllClaimsFromToken() {
+        return jwtService.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Set<String> getRolesSet() {
+        return user.getRolesSet();
+    }
+}
@@ -0,0 +1,293 @@
+package com.enterprise.portfolio.userservice.config;
+
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary codec for cached search results and demo values.
+ *
+ * User profiles themselves are cached as Redis hashes (see ProfileHashCache) and never go
+ * through this codec; {@link #TYPE_USER} only covers single {@link UserResponse} values
+ * that demo and test endpoints store under their own namespace.
+ *
+ * A {@link UserResponse} is written as a presence bitmap followed by its non-null fields
+ * in declaration order (varints, length-prefixed UTF-8, epoch-second timestamps), with no
+ * field names or type metadata. Lists of profiles are count-prefixed and LZ4-compressed
+ * once they exceed {@value #COMPRESSION_THRESHOLD} bytes.
+ *
+ * Layout: {@code MAGIC VERSION TYPE FLAGS body}. The magic byte can never start a JSON
+ * document, so values without it (entries written before this codec, or values of other
+ * types) are handed to the JSON fallback serializer.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC1;
+    static final byte VERSION = 1;
+
+    static final byte TYPE_USER = 1;
+    static final byte TYPE_USER_LIST = 2;
+
+    static final byte FLAG_LZ4 = 1;
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    private static final int HEADER_SIZE = 4;
+
+    // Presence bits, one per UserResponse component; the two Booleans also carry their value
+    private static final int ID = 1;
+    private static final int USERNAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+    private static final int FIRST_NAME = 1 << 3;
+    private static final int LAST_NAME = 1 << 4;
+    private static final int EMAIL_VERIFIED = 1 << 5;
+    private static final int ENABLED = 1 << 6;
+    private static final int ROLES = 1 << 7;
+    private static final int LAST_LOGIN_AT = 1 << 8;
+    private static final int CREATED_AT = 1 << 9;
+    private static final int UPDATED_AT = 1 << 10;
+    private static final int PROFILE_COMPLETENESS = 1 << 11;
+    private static final int ACCOUNT_STATUS = 1 << 12;
+    private static final int EMAIL_VERIFIED_VALUE = 1 << 13;
+    private static final int ENABLED_VALUE = 1 << 14;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> fallback;
+
+    /**
+     * @param fallback serializer for values this codec does not cover and for legacy entries
+     */
+    public CompactCacheSerializer(RedisSerializer<Object> fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback serializer is required");
+        }
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof UserResponse user) {
+            Writer body = new Writer();
+            writeUser(body, user);
+            return frame(TYPE_USER, body.toByteArray());
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(UserResponse.class::isInstance)) {
+            Writer body = new Writer();
+            body.writeVarLong(list.size());
+            for (Object user : list) {
+                writeUser(body, (UserResponse) user);
+            }
+            return frame(TYPE_USER_LIST, body.toByteArray());
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // JSON written before the codec was introduced, or a value it does not cover
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported cache codec version: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+
+        try {
+            ByteBuffer body = ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            if ((bytes[3] & FLAG_LZ4) != 0) {
+                body = decompress(body);
+            }
+            return switch (bytes[2]) {
+                case TYPE_USER -> readUser(body);
+                case TYPE_USER_LIST -> {
+                    int size = (int) readVarLong(body);
+                    List<UserResponse> users = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        users.add(readUser(body));
+                    }
+                    yield users;
+                }
+                default -> throw new SerializationException("Unknown cache value type: " + bytes[2]);
+            };
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Corrupt cache entry", e);
+        }
+    }
+
+    private static byte[] frame(byte type, byte[] body) {
+        byte flags = 0;
+        if (body.length > COMPRESSION_THRESHOLD) {
+            byte[] compressed = compress(body);
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_LZ4;
+            }
+        }
+        byte[] framed = new byte[HEADER_SIZE + body.length];
+        framed[0] = MAGIC;
+        framed[1] = VERSION;
+        framed[2] = type;
+        framed[3] = flags;
+        System.arraycopy(body, 0, framed, HEADER_SIZE, body.length);
+        return framed;
+    }
+
+    // Compressed body: varint original length, then the LZ4 block
+    private static byte[] compress(byte[] body) {
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        Writer out = new Writer();
+        out.writeVarLong(body.length);
+        byte[] block = new byte[compressor.maxCompressedLength(body.length)];
+        int length = compressor.compress(body, 0, body.length, block, 0, block.length);
+        out.write(block, 0, length);
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer decompress(ByteBuffer body) {
+        int originalLength = (int) readVarLong(body);
+        LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+        ByteBuffer restored = ByteBuffer.allocate(originalLength);
+        decompressor.decompress(body, body.position(), body.remaining(), restored, 0, originalLength);
+        return restored;
+    }
+
+    private static void writeUser(Writer out, UserResponse user) {
+        int bits = 0;
+        if (user.id() != null) bits |= ID;
+        if (user.username() != null) bits |= USERNAME;
+        if (user.email() != null) bits |= EMAIL;
+        if (user.firstName() != null) bits |= FIRST_NAME;
+        if (user.lastName() != null) bits |= LAST_NAME;
+        if (user.emailVerified() != null) bits |= EMAIL_VERIFIED | (user.emailVerified() ? EMAIL_VERIFIED_VALUE : 0);
+        if (user.enabled() != null) bits |= ENABLED | (user.enabled() ? ENABLED_VALUE : 0);
+        if (user.roles() != null) bits |= ROLES;
+        if (user.lastLoginAt() != null) bits |= LAST_LOGIN_AT;
+        if (user.createdAt() != null) bits |= CREATED_AT;
+        if (user.updatedAt() != null) bits |= UPDATED_AT;
+        if (user.profileCompleteness() != null) bits |= PROFILE_COMPLETENESS;
+        if (user.accountStatus() != null) bits |= ACCOUNT_STATUS;
+        out.writeVarLong(bits);
+
+        if (user.id() != null) out.writeZigZag(user.id());
+        if (user.username() != null) out.writeString(user.username());
+        if (user.email() != null) out.writeString(user.email());
+        if (user.firstName() != null) out.writeString(user.firstName());
+        if (user.lastName() != null) out.writeString(user.lastName());
+        if (user.roles() != null) {
+            out.writeVarLong(user.roles().length);
+            for (String role : user.roles()) {
+                out.writeString(role);
+            }
+        }
+        if (user.lastLoginAt() != null) out.writeDateTime(user.lastLoginAt());
+        if (user.createdAt() != null) out.writeDateTime(user.createdAt());
+        if (user.updatedAt() != null) out.writeDateTime(user.updatedAt());
+        if (user.profileCompleteness() != null) out.writeZigZag(user.profileCompleteness());
+        if (user.accountStatus() != null) out.writeString(user.accountStatus());
+    }
+
+    private static UserResponse readUser(ByteBuffer in) {
+        int bits = (int) readVarLong(in);
+        Long id = (bits & ID) != 0 ? readZigZag(in) : null;
+        String username = (bits & USERNAME) != 0 ? readString(in) : null;
+        String email = (bits & EMAIL) != 0 ? readString(in) : null;
+        String firstName = (bits & FIRST_NAME) != 0 ? readString(in) : null;
+        String lastName = (bits & LAST_NAME) != 0 ? readString(in) : null;
+        Boolean emailVerified = (bits & EMAIL_VERIFIED) != 0 ? (bits & EMAIL_VERIFIED_VALUE) != 0 : null;
+        Boolean enabled = (bits & ENABLED) != 0 ? (bits & ENABLED_VALUE) != 0 : null;
+        String[] roles = null;
+        if ((bits & ROLES) != 0) {
+            roles = new String[(int) readVarLong(in)];
+            for (int i = 0; i < roles.length; i++) {
+                roles[i] = readString(in);
+            }
+        }
+        LocalDateTime lastLoginAt = (bits & LAST_LOGIN_AT) != 0 ? readDateTime(in) : null;
+        LocalDateTime createdAt = (bits & CREATED_AT) != 0 ? readDateTime(in) : null;
+        LocalDateTime updatedAt = (bits & UPDATED_AT) != 0 ? readDateTime(in) : null;
+        Integer profileCompleteness = (bits & PROFILE_COMPLETENESS) != 0 ? (int) readZigZag(in) : null;
+        String accountStatus = (bits & ACCOUNT_STATUS) != 0 ? readString(in) : null;
+        return new UserResponse(id, username, email, firstName, lastName, emailVerified, enabled, roles,
+            lastLoginAt, createdAt, updatedAt, profileCompleteness, accountStatus);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    private static long readZigZag(ByteBuffer in) {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        long epochSecond = readZigZag(in);
+        int nanos = (int) readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Growable output with the codec's primitive encodings.
+     */
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(128);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+
+        // LocalDateTime is zone-less; UTC here only fixes the epoch arithmetic
+        void writeDateTime(LocalDateTime value) {
+            writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.enterprise.portfolio.userservice.config;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Which database a query should run on, carried in the Reactor context of the subscriber.
+ *
+ * Anything without a route runs on the primary, so only reads that can tolerate replica
+ * lag need to opt in. Without {@link ReplicaRoutingConnectionFactory} the route is ignored.
+ */
+public enum DatabaseRoute {
+    PRIMARY,
+    REPLICA;
+
+    private static final Class<DatabaseRoute> CONTEXT_KEY = DatabaseRoute.class;
+
+    public <T> Mono<T> apply(Mono<T> query) {
+        return query.contextWrite(context -> context.put(CONTEXT_KEY, this));
+    }
+
+    public <T> Flux<T> apply(Flux<T> query) {
+        return query.contextWrite(context -> context.put(CONTEXT_KEY, this));
+    }
+
+    public static DatabaseRoute current(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, PRIMARY);
+    }
+}
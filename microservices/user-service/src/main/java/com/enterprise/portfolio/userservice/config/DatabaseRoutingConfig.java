@@ -0,0 +1,86 @@
+package com.enterprise.portfolio.userservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write split for R2DBC, enabled with {@code app.datasource.read-replicas.enabled}.
+ *
+ * Replaces the auto-configured pool with a {@link ReplicaRoutingConnectionFactory} over a
+ * primary pool built from {@code spring.r2dbc.*} and one pool per replica URL, sized and
+ * authenticated like the primary. When disabled, Spring Boot's single pool is used and
+ * {@link DatabaseRoute} hints have no effect.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.read-replicas.enabled", havingValue = "true")
+public class DatabaseRoutingConfig {
+
+    @Value("${spring.r2dbc.url}")
+    private String primaryUrl;
+
+    @Value("${spring.r2dbc.username:}")
+    private String username;
+
+    @Value("${spring.r2dbc.password:}")
+    private String password;
+
+    @Value("${spring.r2dbc.pool.initial-size:5}")
+    private int initialSize;
+
+    @Value("${spring.r2dbc.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${spring.r2dbc.pool.max-idle-time:30m}")
+    private Duration maxIdleTime;
+
+    @Value("${spring.r2dbc.pool.validation-query:SELECT 1}")
+    private String validationQuery;
+
+    @Value("${app.datasource.read-replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.read-replicas.health-check-interval:5s}")
+    private Duration healthCheckInterval;
+
+    @Value("${app.datasource.read-replicas.health-check-timeout:2s}")
+    private Duration healthCheckTimeout;
+
+    @Bean
+    @Primary
+    public ConnectionFactory connectionFactory() {
+        List<ReplicaRoutingConnectionFactory.Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!url.isBlank()) {
+                String name = "replica-" + replicas.size();
+                replicas.add(new ReplicaRoutingConnectionFactory.Replica(name, pool(name, url.trim())));
+            }
+        }
+        return new ReplicaRoutingConnectionFactory(pool("primary", primaryUrl), replicas,
+            healthCheckInterval, healthCheckTimeout);
+    }
+
+    private ConnectionPool pool(String name, String url) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+            .username(username)
+            .password(password)
+            .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+            .name(name)
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .maxIdleTime(maxIdleTime)
+            .validationQuery(validationQuery)
+            .build());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -39,6 +40,23 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
     }
     
+    /**
+     * Template for cached search results and demo values, stored with the compact binary
+     * codec; JSON entries written before the codec are still readable. User profiles are
+     * cached as hashes by ProfileHashCache, not through this template.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> compactRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+            .<String, Object>newSerializationContext(new StringRedisSerializer())
+            .hashKey(new StringRedisSerializer())
+            .hashValue(new GenericJackson2JsonRedisSerializer())
+            .value(new CompactCacheSerializer(new GenericJackson2JsonRedisSerializer()))
+            .build();
+            
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+    
     @Bean 
     public ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
         RedisSerializationContext<String, String> serializationContext = RedisSerializationContext
@@ -50,4 +68,12 @@ public class RedisConfig {
             
         return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
     }
+    
+    /**
+     * Pub/sub subscriptions, shared by every listener on one connection
+     */
+    @Bean
+    public ReactiveRedisMessageListenerContainer reactiveRedisMessageListenerContainer(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.enterprise.portfolio.userservice.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection factory that sends {@link DatabaseRoute#REPLICA} queries to a pool of read
+ * replicas and everything else to the primary.
+ *
+ * Replicas are picked round-robin among those passing the periodic health check. A replica
+ * that fails to hand out a connection is marked down immediately and the query falls back
+ * to the primary, as does every replica read while no replica is healthy. A down replica
+ * rejoins after its next successful check.
+ */
+public class ReplicaRoutingConnectionFactory implements ConnectionFactory, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingConnectionFactory.class);
+
+    private final ConnectionFactory primary;
+    private final List<Replica> replicas;
+    private final Duration checkTimeout;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final Disposable healthCheck;
+
+    /**
+     * @param primary         target for writes and unrouted reads
+     * @param replicas        read replicas, keyed by a name used in logs
+     * @param checkInterval   how often each replica is probed with {@code SELECT 1}
+     * @param checkTimeout    how long a probe may take before the replica counts as down
+     */
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary, List<Replica> replicas,
+                                           Duration checkInterval, Duration checkTimeout) {
+        if (primary == null) {
+            throw new IllegalArgumentException("Primary connection factory is required");
+        }
+        if (checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("Health check interval must be positive: " + checkInterval);
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.checkTimeout = checkTimeout;
+        this.healthCheck = this.replicas.isEmpty() ? null : Flux.interval(Duration.ZERO, checkInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> Flux.fromIterable(this.replicas).flatMap(this::check), 1)
+            .subscribe();
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> DatabaseRoute.current(context) == DatabaseRoute.REPLICA
+            ? createOnReplica()
+            : Mono.from(primary.create()));
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    private Mono<Connection> createOnReplica() {
+        Replica replica = nextHealthy();
+        if (replica == null) {
+            return Mono.from(primary.create());
+        }
+        return Mono.<Connection>from(replica.factory().create())
+            .onErrorResume(error -> {
+                markDown(replica, error);
+                return Mono.from(primary.create());
+            });
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.healthy) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Mono<Void> check(Replica replica) {
+        return Mono.usingWhen(
+                replica.factory().create(),
+                connection -> Flux.from(connection.createStatement("SELECT 1").execute())
+                    .flatMap(result -> result.map((row, metadata) -> 1))
+                    .then(),
+                Connection::close)
+            .timeout(checkTimeout)
+            .doOnSuccess(ok -> {
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    logger.info("Read replica {} is healthy, routing reads to it", replica.name());
+                }
+            })
+            .onErrorResume(error -> {
+                markDown(replica, error);
+                return Mono.empty();
+            });
+    }
+
+    private void markDown(Replica replica, Throwable error) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Read replica {} is down, reads fail over: {}", replica.name(), error.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (healthCheck != null) {
+            healthCheck.dispose();
+        }
+        dispose(primary);
+        replicas.forEach(replica -> dispose(replica.factory()));
+    }
+
+    private static void dispose(ConnectionFactory factory) {
+        if (factory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    /**
+     * One read replica; starts out down until its first health check passes.
+     */
+    public static final class Replica {
+        private final String name;
+        private final ConnectionFactory factory;
+        private volatile boolean healthy;
+
+        public Replica(String name, ConnectionFactory factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public ConnectionFactory factory() {
+            return factory;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+}
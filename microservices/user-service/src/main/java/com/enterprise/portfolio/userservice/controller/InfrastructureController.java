@@ -68,8 +68,8 @@ public class InfrastructureController {
         String key = testData.getOrDefault("key", "test-key");
         String value = testData.getOrDefault("value", "test-value");
         
-        return cacheService.cacheUserProfile(key, value)
-            .then(cacheService.getCachedUserProfile(key))
+        return cacheService.cacheDemoValue(key, value)
+            .then(cacheService.getCachedDemoValue(key))
             .map(cachedValue -> {
                 Map<String, Object> result = new HashMap<>();
                 result.put("status", "SUCCESS");
@@ -117,8 +117,8 @@ public class InfrastructureController {
         String sessionData = testData.getOrDefault("sessionData", "test-session-data");
         
         // Test Redis caching
-        Mono<String> redisMono = cacheService.cacheUserProfile(userId, sessionData)
-            .then(cacheService.getCachedUserProfile(userId))
+        Mono<String> redisMono = cacheService.cacheDemoValue(userId, sessionData)
+            .then(cacheService.getCachedDemoValue(userId))
             .map(Object::toString);
             
         // Test Kafka event
@@ -143,11 +143,13 @@ public class InfrastructureController {
     @Operation(summary = "Clear Redis test caches", description = "Clear all user-related caches for testing")
     public Mono<Map<String, Object>> clearTestCaches() {
         return cacheService.clearUserCaches()
-            .map(count -> {
+            .map(progress -> {
                 Map<String, Object> result = new HashMap<>();
                 result.put("status", "SUCCESS");
                 result.put("operation", "clear_caches");
-                result.put("cleared_keys", count);
+                result.put("cleared_keys", progress.unlinkedKeys());
+                result.put("scanned_keys", progress.scannedKeys());
+                result.put("unlink_batches", progress.batches());
                 result.put("timestamp", System.currentTimeMillis());
                 return result;
             })
@@ -1,6 +1,7 @@
 package com.enterprise.portfolio.userservice.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -14,6 +15,7 @@ import com.enterprise.portfolio.userservice.dto.UserRegistrationRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -34,13 +36,18 @@ public class JavaDemoController {
     private final AtomicLong redisTests = new AtomicLong(0);
     private final AtomicLong kafkaTests = new AtomicLong(0);
 
+    private final LiveSnapshotStream<Map<String, Object>> realTimeStats;
+
     @Autowired
     public JavaDemoController(CacheService cacheService, 
                              KafkaEventService kafkaEventService,
-                             UserService userService) {
+                             UserService userService,
+                             @Value("${app.monitoring.live-interval:2s}") Duration liveInterval) {
         this.cacheService = cacheService;
         this.kafkaEventService = kafkaEventService;
         this.userService = userService;
+        this.realTimeStats = new LiveSnapshotStream<>("real-time-stats", liveInterval,
+            () -> Mono.fromCallable(this::currentStats));
     }
 
     @GetMapping("/live-proof")
@@ -74,8 +81,8 @@ public class JavaDemoController {
         String testKey = "java-demo-" + testId + "-" + System.currentTimeMillis();
         String testData = "Java-generated test data #" + testId + " at " + LocalDateTime.now();
         
-        return cacheService.cacheUserProfile(testKey, testData)
-            .then(cacheService.getCachedUserProfile(testKey))
+        return cacheService.cacheDemoValue(testKey, testData)
+            .then(cacheService.getCachedDemoValue(testKey))
             .map(cachedData -> {
                 Map<String, Object> result = new HashMap<>();
                 result.put("status", "REDIS_LIVE_TEST_SUCCESS");
@@ -137,8 +144,8 @@ public class JavaDemoController {
             .flatMap(registeredUser -> {
                 // Test Redis caching with user data
                 String cacheKey = "demo-user-" + registeredUser.id();
-                return cacheService.cacheUserProfile(cacheKey, registeredUser)
-                    .then(cacheService.getCachedUserProfile(cacheKey))
+                return cacheService.cacheDemoValue(cacheKey, registeredUser)
+                    .then(cacheService.getCachedDemoValue(cacheKey))
                     .zipWith(
                         // Test Kafka events
                         kafkaEventService.publishNotificationEvent(
@@ -171,19 +178,20 @@ public class JavaDemoController {
     @Operation(summary = "Real-time statistics stream", 
                description = "Server-Sent Events showing live system activity")
     public Flux<Map<String, Object>> getRealTimeStats() {
-        return Flux.interval(Duration.ofSeconds(2))
-            .map(tick -> {
-                Map<String, Object> stats = new HashMap<>();
-                stats.put("timestamp", LocalDateTime.now().toString());
-                stats.put("demo_sessions", demoCounter.get());
-                stats.put("redis_tests_completed", redisTests.get());
-                stats.put("kafka_tests_completed", kafkaTests.get());
-                stats.put("uptime_seconds", tick * 2);
-                stats.put("java_memory_used_mb", 
-                    (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024);
-                stats.put("status", "JAVA_MONITORING_ACTIVE");
-                return stats;
-            });
+        return realTimeStats.stream();
+    }
+
+    private Map<String, Object> currentStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("timestamp", LocalDateTime.now().toString());
+        stats.put("demo_sessions", demoCounter.get());
+        stats.put("redis_tests_completed", redisTests.get());
+        stats.put("kafka_tests_completed", kafkaTests.get());
+        stats.put("uptime_seconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000);
+        stats.put("java_memory_used_mb", 
+            (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024);
+        stats.put("status", "JAVA_MONITORING_ACTIVE");
+        return stats;
     }
 
     @PostMapping("/stress-test")
@@ -0,0 +1,49 @@
+package com.enterprise.portfolio.userservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A snapshot computed once per interval and multicast to every SSE viewer.
+ *
+ * The source only runs while someone is subscribed. The latest snapshot is replayed
+ * to viewers joining mid-interval, ticks are skipped while a snapshot is still being
+ * computed, and each viewer gets a small drop-oldest buffer so a slow client never
+ * holds back the others.
+ */
+final class LiveSnapshotStream<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSnapshotStream.class);
+
+    private static final int SUBSCRIBER_BUFFER = 4;
+
+    private final Flux<T> shared;
+
+    LiveSnapshotStream(String name, Duration interval, Supplier<Mono<T>> snapshot) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Live interval must be positive: " + interval);
+        }
+        this.shared = Flux.interval(Duration.ZERO, interval)
+            .onBackpressureDrop()
+            .concatMap(tick -> snapshot.get()
+                .onErrorResume(error -> {
+                    logger.warn("Skipping {} snapshot: {}", name, error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .replay(1)
+            .refCount(1, interval);
+    }
+
+    /**
+     * Stream for one viewer.
+     */
+    Flux<T> stream() {
+        return shared.onBackpressureBuffer(SUBSCRIBER_BUFFER, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
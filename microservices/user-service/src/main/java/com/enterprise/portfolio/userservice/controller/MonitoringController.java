@@ -1,6 +1,7 @@
 package com.enterprise.portfolio.userservice.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -17,7 +18,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @RequestMapping("/api/v1/monitoring")
@@ -28,22 +28,21 @@ public class MonitoringController {
     private final KafkaEventService kafkaEventService;
     private final MonitoringService monitoringService;
     private final RealTimeMetricsService realTimeMetricsService;
-    
-    // Legacy counters for compatibility (will be replaced by RealTimeMetricsService)
-    private final AtomicLong redisOperations = new AtomicLong(0);
-    private final AtomicLong kafkaEvents = new AtomicLong(0);
-    private final AtomicLong cacheHits = new AtomicLong(0);
-    private final AtomicLong cacheMisses = new AtomicLong(0);
+    private final LiveSnapshotStream<Map<String, Object>> liveMetrics;
 
     @Autowired
     public MonitoringController(CacheService cacheService, 
                                KafkaEventService kafkaEventService,
                                MonitoringService monitoringService,
-                               RealTimeMetricsService realTimeMetricsService) {
+                               RealTimeMetricsService realTimeMetricsService,
+                               @Value("${app.monitoring.live-interval:2s}") Duration liveInterval) {
         this.cacheService = cacheService;
         this.kafkaEventService = kafkaEventService;
         this.monitoringService = monitoringService;
         this.realTimeMetricsService = realTimeMetricsService;
+        // One dashboard computation per interval (Redis ping, Kafka test send, key scan),
+        // however many viewers are connected
+        this.liveMetrics = new LiveSnapshotStream<>("live-metrics", liveInterval, this::getDashboardData);
     }
 
     @GetMapping("/dashboard")
@@ -58,6 +57,7 @@ public class MonitoringController {
         )
         .map(tuple -> {
             Map<String, Object> dashboard = new HashMap<>();
+            RealTimeMetricsService.MetricsSnapshot snapshot = realTimeMetricsService.snapshot();
             
             // System Status
             dashboard.put("timestamp", System.currentTimeMillis());
@@ -67,13 +67,13 @@ public class MonitoringController {
             // Real-time Metrics from RealTimeMetricsService
             dashboard.put("real_time_metrics", tuple.getT3());
             
-            // Legacy metrics for compatibility
+            // Legacy metrics for compatibility, now served from the same counters
             Map<String, Object> legacyMetrics = new HashMap<>();
-            legacyMetrics.put("redis_operations", redisOperations.get());
-            legacyMetrics.put("kafka_events", kafkaEvents.get());
-            legacyMetrics.put("cache_hits", cacheHits.get());
-            legacyMetrics.put("cache_misses", cacheMisses.get());
-            legacyMetrics.put("cache_hit_ratio", calculateCacheHitRatio());
+            legacyMetrics.put("redis_operations", snapshot.redisOperations());
+            legacyMetrics.put("kafka_events", snapshot.kafkaEvents());
+            legacyMetrics.put("cache_hits", snapshot.cacheHits());
+            legacyMetrics.put("cache_misses", snapshot.cacheMisses());
+            legacyMetrics.put("cache_hit_ratio", snapshot.cacheHitRatio());
             dashboard.put("legacy_metrics", legacyMetrics);
             
             // Component Details
@@ -87,16 +87,7 @@ public class MonitoringController {
     @GetMapping(value = "/live-metrics", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Live metrics stream", description = "Real-time streaming metrics for Kafka and Redis")
     public Flux<Map<String, Object>> getLiveMetrics() {
-        return Flux.interval(Duration.ofSeconds(2))
-            .flatMap(tick -> {
-                // Simulate some activity for demonstration
-                if (tick % 3 == 0) redisOperations.incrementAndGet();
-                if (tick % 2 == 0) kafkaEvents.incrementAndGet();
-                if (tick % 5 == 0) cacheHits.incrementAndGet();
-                if (tick % 7 == 0) cacheMisses.incrementAndGet();
-                
-                return getDashboardData();
-            });
+        return liveMetrics.stream();
     }
 
     @PostMapping("/simulate/redis-activity")
@@ -107,14 +98,14 @@ public class MonitoringController {
                 String key = "demo-key-" + i;
                 String value = "demo-value-" + System.currentTimeMillis();
                 
-                return cacheService.cacheUserProfile(key, value)
-                    .then(cacheService.getCachedUserProfile(key))
+                return cacheService.cacheDemoValue(key, value)
+                    .then(cacheService.getCachedDemoValue(key))
                     .doOnNext(result -> {
-                        redisOperations.incrementAndGet();
+                        realTimeMetricsService.recordSimulatedRedisOperation("GET", key);
                         if (result != null) {
-                            cacheHits.incrementAndGet();
+                            realTimeMetricsService.recordSimulatedCacheHit(key);
                         } else {
-                            cacheMisses.incrementAndGet();
+                            realTimeMetricsService.recordSimulatedCacheMiss(key);
                         }
                     });
             })
@@ -122,7 +113,7 @@ public class MonitoringController {
                 Map<String, Object> result = new HashMap<>();
                 result.put("status", "SUCCESS");
                 result.put("operations_executed", operations);
-                result.put("total_redis_operations", redisOperations.get());
+                result.put("total_simulated_redis_operations", realTimeMetricsService.simulatedRedisOperations());
                 result.put("timestamp", System.currentTimeMillis());
                 return result;
             }));
@@ -137,13 +128,13 @@ public class MonitoringController {
                 String message = "Demo notification " + i + " at " + System.currentTimeMillis();
                 
                 return kafkaEventService.publishNotificationEvent(userId, message, "demo")
-                    .doOnNext(result -> kafkaEvents.incrementAndGet());
+                    .doOnNext(result -> realTimeMetricsService.recordSimulatedKafkaEvent("notifications", "demo"));
             })
             .then(Mono.fromCallable(() -> {
                 Map<String, Object> result = new HashMap<>();
                 result.put("status", "SUCCESS");
                 result.put("events_published", events);
-                result.put("total_kafka_events", kafkaEvents.get());
+                result.put("total_simulated_kafka_events", realTimeMetricsService.simulatedKafkaEvents());
                 result.put("timestamp", System.currentTimeMillis());
                 return result;
             }));
@@ -188,12 +179,7 @@ public class MonitoringController {
     @DeleteMapping("/reset-metrics")
     @Operation(summary = "Reset monitoring metrics", description = "Reset all monitoring counters to zero")
     public Mono<Map<String, Object>> resetMetrics() {
-        // Reset both legacy and real-time metrics
-        redisOperations.set(0);
-        kafkaEvents.set(0);
-        cacheHits.set(0);
-        cacheMisses.set(0);
-        
+        // Legacy and real-time views share the same counters
         realTimeMetricsService.resetAllMetrics();
         
         Map<String, Object> result = new HashMap<>();
@@ -215,13 +201,4 @@ public class MonitoringController {
             return response;
         });
     }
-
-    private double calculateCacheHitRatio() {
-        long hits = cacheHits.get();
-        long misses = cacheMisses.get();
-        long total = hits + misses;
-        
-        if (total == 0) return 0.0;
-        return (double) hits / total * 100.0;
-    }
 }
\ No newline at end of file
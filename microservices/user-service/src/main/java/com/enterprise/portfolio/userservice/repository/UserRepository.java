@@ -49,6 +49,17 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     @Query("SELECT EXISTS(SELECT 1 FROM users WHERE LOWER(email) = LOWER(:email))")
     Mono<Boolean> existsByEmailIgnoreCase(String email);
     
+    /**
+     * Identifiers of every user, for the in-memory existence filter
+     */
+    @Query("SELECT id, username, email FROM users")
+    Flux<UserKeys> findAllKeys();
+    
+    /**
+     * ID, username and email of one user
+     */
+    record UserKeys(Long id, String username, String email) {}
+    
     /**
      * Find all active users
      */
@@ -0,0 +1,71 @@
+package com.enterprise.portfolio.userservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free multi-producer log of the most recent activities.
+ *
+ * Producers claim a sequence number with a single {@code getAndIncrement} and publish
+ * an immutable {@link Slot} into {@code sequence & mask}; nothing blocks and nothing is
+ * formatted on the write path. Readers walk back from the head and keep only slots
+ * whose sequence matches the index they read, which skips both entries that are not
+ * yet published and entries a faster producer already overwrote.
+ */
+final class ActivityRingBuffer {
+
+    /**
+     * One recorded activity. Holds references to the caller's strings and primitives
+     * only; the message is built by {@link RealTimeMetricsService} when read.
+     */
+    record Slot(long sequence, long timestamp, RealTimeMetricsService.ActivityType type,
+                String subject, String detail, long count) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long clearedBefore;
+
+    ActivityRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void add(long timestamp, RealTimeMetricsService.ActivityType type, String subject, String detail, long count) {
+        long sequence = head.getAndIncrement();
+        slots.lazySet((int) (sequence & mask), new Slot(sequence, timestamp, type, subject, detail, count));
+    }
+
+    /**
+     * Returns up to {@code limit} published entries, newest first.
+     */
+    List<Slot> snapshot(int limit) {
+        long newest = head.get() - 1;
+        long oldest = Math.max(clearedBefore, newest - Math.min(limit, slots.length()) + 1);
+        List<Slot> result = new ArrayList<>((int) Math.max(0, newest - oldest + 1));
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            Slot slot = slots.get((int) (sequence & mask));
+            if (slot != null && slot.sequence() == sequence) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hides everything recorded so far from later snapshots.
+     */
+    void clear() {
+        clearedBefore = head.get();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,40 @@
+package com.enterprise.portfolio.userservice.service;
+
+/**
+ * Key namespaces the user service writes to Redis.
+ */
+public enum CacheKeyPrefix {
+    USER_PROFILE("user:profile:"),
+    SEARCH_RESULTS("search:users:"),
+    SESSION("session:"),
+    AUTH_TOKEN("auth:token:"),
+    MISSING_USER("user:missing:"),
+    // Arbitrary values from demo and test endpoints, kept apart from real profiles
+    DEMO_VALUE("demo:value:");
+
+    private final String prefix;
+
+    CacheKeyPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public String key(String id) {
+        return prefix + id;
+    }
+
+    /**
+     * The namespace a key belongs to, or {@code null} for keys the service does not own.
+     */
+    public static CacheKeyPrefix of(String key) {
+        for (CacheKeyPrefix candidate : values()) {
+            if (key.startsWith(candidate.prefix)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
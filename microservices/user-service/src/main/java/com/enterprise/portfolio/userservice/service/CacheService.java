@@ -1,59 +1,173 @@
 package com.enterprise.portfolio.userservice.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+
 import java.time.Duration;
 import java.util.Map;
 
 @Service
 public class CacheService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
+
     private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    // Search results and demo values use the compact binary codec (see CompactCacheSerializer)
+    private final ReactiveRedisTemplate<String, Object> compactRedisTemplate;
+    private final KeyspaceStatistics keyspaceStatistics;
+    private final ProfileHashCache profileHashCache;
+    private final ProfileAccessTracker accessTracker;
     
     // Cache TTL configurations
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(15);
-    private static final Duration USER_PROFILE_TTL = Duration.ofMinutes(30);
     private static final Duration AUTH_TOKEN_TTL = Duration.ofHours(1);
+    private static final Duration DEMO_VALUE_TTL = Duration.ofMinutes(30);
+    // Short enough that a user created elsewhere is visible quickly
+    private static final Duration MISSING_USER_TTL = Duration.ofSeconds(60);
+    
+    // Bulk invalidation: SCAN COUNT hint, keys per UNLINK and UNLINKs in flight
+    private static final long INVALIDATION_SCAN_COUNT = 1000;
+    private static final int INVALIDATION_BATCH_SIZE = 500;
+    private static final int INVALIDATION_CONCURRENCY = 4;
     
     @Autowired
-    public CacheService(ReactiveRedisTemplate<String, Object> redisTemplate) {
+    public CacheService(ReactiveRedisTemplate<String, Object> redisTemplate,
+                        @Qualifier("compactRedisTemplate") ReactiveRedisTemplate<String, Object> compactRedisTemplate,
+                        KeyspaceStatistics keyspaceStatistics,
+                        ProfileHashCache profileHashCache,
+                        ProfileAccessTracker accessTracker) {
         this.redisTemplate = redisTemplate;
+        this.compactRedisTemplate = compactRedisTemplate;
+        this.keyspaceStatistics = keyspaceStatistics;
+        this.profileHashCache = profileHashCache;
+        this.accessTracker = accessTracker;
+    }
+    
+    /**
+     * Get a user's cached profile (hash layout, see {@link ProfileHashCache})
+     */
+    public Mono<UserResponse> getUserProfile(Long userId) {
+        return profileHashCache.get(userId);
+    }
+    
+    public Mono<Boolean> isUserProfileCached(Long userId) {
+        return redisTemplate.hasKey(CacheKeyPrefix.USER_PROFILE.key(userId.toString()));
+    }
+    
+    /**
+     * Count a profile read towards the hot set used for warm-up (written behind, no I/O here)
+     */
+    public void recordProfileAccess(Long userId) {
+        accessTracker.record(userId);
+    }
+    
+    /**
+     * Most frequently read user IDs across all instances, hottest first
+     */
+    public Flux<Long> getHotProfileIds(int limit) {
+        return accessTracker.hottest(limit);
+    }
+    
+    /**
+     * Cache a user's profile as loaded at the given row version
+     */
+    public Mono<Boolean> cacheUserProfile(Long userId, UserResponse profile, Long version) {
+        return profileHashCache.put(userId, profile, version)
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.USER_PROFILE, stored));
+    }
+    
+    /**
+     * Write through a profile update, touching only the fields that changed
+     */
+    public Mono<Boolean> updateUserProfile(Long userId, UserResponse previous, Long previousVersion,
+                                           UserResponse updated, Long updatedVersion) {
+        return profileHashCache.update(userId, previous, previousVersion, updated, updatedVersion)
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.USER_PROFILE, stored));
+    }
+    
+    /**
+     * Remember that no active user has this ID
+     */
+    public Mono<Boolean> cacheMissingUserId(Long userId) {
+        return cacheMissing("id:" + userId);
     }
     
     /**
-     * Cache user profile data
+     * Remember that no active user has this username
      */
-    public Mono<Boolean> cacheUserProfile(String userId, Object userData) {
-        String key = "user:profile:" + userId;
+    public Mono<Boolean> cacheMissingUsername(String username) {
+        return cacheMissing("username:" + username.toLowerCase());
+    }
+    
+    public Mono<Boolean> isMissingUserId(Long userId) {
+        return redisTemplate.hasKey(CacheKeyPrefix.MISSING_USER.key("id:" + userId))
+            .onErrorReturn(false);
+    }
+    
+    public Mono<Boolean> isMissingUsername(String username) {
+        return redisTemplate.hasKey(CacheKeyPrefix.MISSING_USER.key("username:" + username.toLowerCase()))
+            .onErrorReturn(false);
+    }
+    
+    /**
+     * Drop negative entries for a user that now exists
+     */
+    public Mono<Long> clearMissingUser(Long userId, String username) {
+        return redisTemplate.unlink(
+                CacheKeyPrefix.MISSING_USER.key("id:" + userId),
+                CacheKeyPrefix.MISSING_USER.key("username:" + username.toLowerCase()))
+            .doOnNext(count -> keyspaceStatistics.recordDeletes(CacheKeyPrefix.MISSING_USER, count));
+    }
+    
+    private Mono<Boolean> cacheMissing(String id) {
         return redisTemplate.opsForValue()
-            .set(key, userData, USER_PROFILE_TTL);
+            .set(CacheKeyPrefix.MISSING_USER.key(id), Boolean.TRUE, MISSING_USER_TTL)
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.MISSING_USER, stored));
     }
     
     /**
-     * Get cached user profile
+     * Cache arbitrary data for demo and test endpoints, outside the profile namespace
      */
-    public Mono<Object> getCachedUserProfile(String userId) {
-        String key = "user:profile:" + userId;
-        return redisTemplate.opsForValue().get(key);
+    public Mono<Boolean> cacheDemoValue(String id, Object value) {
+        String key = CacheKeyPrefix.DEMO_VALUE.key(id);
+        return compactRedisTemplate.opsForValue()
+            .set(key, value, DEMO_VALUE_TTL)
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.DEMO_VALUE, stored));
+    }
+    
+    /**
+     * Get data cached with {@link #cacheDemoValue(String, Object)}
+     */
+    public Mono<Object> getCachedDemoValue(String id) {
+        String key = CacheKeyPrefix.DEMO_VALUE.key(id);
+        return readCompact(key);
     }
     
     /**
      * Cache authentication token validation result
      */
     public Mono<Boolean> cacheTokenValidation(String tokenHash, Boolean isValid) {
-        String key = "auth:token:" + tokenHash;
+        String key = CacheKeyPrefix.AUTH_TOKEN.key(tokenHash);
         return redisTemplate.opsForValue()
-            .set(key, isValid, AUTH_TOKEN_TTL);
+            .set(key, isValid, AUTH_TOKEN_TTL)
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.AUTH_TOKEN, stored));
     }
     
     /**
      * Get cached token validation result
      */
     public Mono<Boolean> getCachedTokenValidation(String tokenHash) {
-        String key = "auth:token:" + tokenHash;
+        String key = CacheKeyPrefix.AUTH_TOKEN.key(tokenHash);
         return redisTemplate.opsForValue().get(key)
             .cast(Boolean.class)
             .defaultIfEmpty(false);
@@ -63,17 +177,18 @@ public class CacheService {
      * Cache user session data
      */
     public Mono<Boolean> cacheUserSession(String sessionId, Map<String, Object> sessionData) {
-        String key = "session:" + sessionId;
+        String key = CacheKeyPrefix.SESSION.key(sessionId);
         return redisTemplate.opsForHash()
             .putAll(key, sessionData)
-            .then(redisTemplate.expire(key, DEFAULT_TTL));
+            .then(redisTemplate.expire(key, DEFAULT_TTL))
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.SESSION, stored));
     }
     
     /**
      * Get cached user session
      */
     public Mono<Map<Object, Object>> getCachedUserSession(String sessionId) {
-        String key = "session:" + sessionId;
+        String key = CacheKeyPrefix.SESSION.key(sessionId);
         return redisTemplate.opsForHash().entries(key)
             .collectMap(entry -> entry.getKey(), entry -> entry.getValue());
     }
@@ -82,8 +197,9 @@ public class CacheService {
      * Invalidate user cache
      */
     public Mono<Boolean> invalidateUserCache(String userId) {
-        String profileKey = "user:profile:" + userId;
+        String profileKey = CacheKeyPrefix.USER_PROFILE.key(userId);
         return redisTemplate.delete(profileKey)
+            .doOnNext(count -> keyspaceStatistics.recordDeletes(CacheKeyPrefix.USER_PROFILE, count))
             .map(count -> count > 0);
     }
     
@@ -91,17 +207,33 @@ public class CacheService {
      * Cache user search results
      */
     public Mono<Boolean> cacheSearchResults(String searchTerm, Object results) {
-        String key = "search:users:" + searchTerm.toLowerCase();
-        return redisTemplate.opsForValue()
-            .set(key, results, Duration.ofMinutes(5)); // Short TTL for search results
+        String key = CacheKeyPrefix.SEARCH_RESULTS.key(searchTerm.toLowerCase());
+        return compactRedisTemplate.opsForValue()
+            .set(key, results, Duration.ofMinutes(5)) // Short TTL for search results
+            .doOnNext(stored -> recordWrite(CacheKeyPrefix.SEARCH_RESULTS, stored));
     }
     
     /**
      * Get cached search results
      */
     public Mono<Object> getCachedSearchResults(String searchTerm) {
-        String key = "search:users:" + searchTerm.toLowerCase();
-        return redisTemplate.opsForValue().get(key);
+        String key = CacheKeyPrefix.SEARCH_RESULTS.key(searchTerm.toLowerCase());
+        return readCompact(key);
+    }
+    
+    // An entry this codec version cannot decode is treated as a miss and reloaded
+    private Mono<Object> readCompact(String key) {
+        return compactRedisTemplate.opsForValue().get(key)
+            .onErrorResume(SerializationException.class, error -> {
+                logger.warn("Discarding undecodable cache entry {}: {}", key, error.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    private void recordWrite(CacheKeyPrefix prefix, Boolean stored) {
+        if (Boolean.TRUE.equals(stored)) {
+            keyspaceStatistics.recordWrite(prefix);
+        }
     }
     
     /**
@@ -127,19 +259,42 @@ public class CacheService {
     /**
      * Clear all user-related caches
      */
-    public Mono<Long> clearUserCaches() {
-        return redisTemplate.scan()
-            .filter(key -> 
-                key.startsWith("user:") || 
-                key.startsWith("session:") || 
-                key.startsWith("search:")
-            )
-            .collectList()
-            .flatMap(keys -> {
-                if (keys.isEmpty()) {
-                    return Mono.just(0L);
-                }
-                return redisTemplate.delete(keys.toArray(new String[0]));
-            });
+    public Mono<InvalidationProgress> clearUserCaches() {
+        return invalidate(CacheKeyPrefix.USER_PROFILE, CacheKeyPrefix.MISSING_USER,
+                CacheKeyPrefix.SESSION, CacheKeyPrefix.SEARCH_RESULTS, CacheKeyPrefix.DEMO_VALUE)
+            .last(InvalidationProgress.NONE);
+    }
+    
+    /**
+     * Remove every key in the given namespaces without blocking Redis or buffering the keys.
+     * 
+     * Each namespace is walked with {@code SCAN MATCH prefix* COUNT n}; matches are removed
+     * with {@code UNLINK} in bounded batches, a few batches in flight at a time, so memory
+     * is reclaimed off the Redis main thread. Emits cumulative progress after every batch.
+     */
+    public Flux<InvalidationProgress> invalidate(CacheKeyPrefix... prefixes) {
+        return Flux.fromArray(prefixes)
+            .concatMap(prefix -> redisTemplate
+                .scan(ScanOptions.scanOptions().match(prefix.prefix() + "*").count(INVALIDATION_SCAN_COUNT).build())
+                .buffer(INVALIDATION_BATCH_SIZE)
+                .flatMap(batch -> redisTemplate.unlink(batch.toArray(new String[0]))
+                    .doOnNext(unlinked -> keyspaceStatistics.recordDeletes(prefix, unlinked))
+                    .map(unlinked -> new InvalidationProgress(batch.size(), unlinked, 1)),
+                    INVALIDATION_CONCURRENCY))
+            .scan(InvalidationProgress.NONE, InvalidationProgress::plus)
+            .skip(1);
+    }
+    
+    /**
+     * Running totals of a bulk invalidation
+     */
+    public record InvalidationProgress(long scannedKeys, long unlinkedKeys, long batches) {
+        
+        public static final InvalidationProgress NONE = new InvalidationProgress(0, 0, 0);
+        
+        InvalidationProgress plus(InvalidationProgress other) {
+            return new InvalidationProgress(
+                scannedKeys + other.scannedKeys, unlinkedKeys + other.unlinkedKeys, batches + other.batches);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.enterprise.portfolio.userservice.service;
+
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import com.enterprise.portfolio.userservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Preloads the most frequently read user profiles into Redis when an instance starts.
+ *
+ * The hot set comes from {@link CacheService#getHotProfileIds(int)}. Profiles already in
+ * Redis are skipped; the rest are read from Postgres in batches and cached, with a bounded
+ * number of requests in flight so a rolling deploy does not itself spike the database.
+ *
+ * Exposed as the {@code cacheWarmup} health component, which reports
+ * {@code OUT_OF_SERVICE} until warm-up has finished, failed or timed out, so
+ * {@code /actuator/health} and the readiness group only turn UP with a warm cache.
+ */
+@Service("cacheWarmup")
+public class CacheWarmer implements ReactiveHealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private static final int LOAD_BATCH_SIZE = 100;
+
+    private final CacheService cacheService;
+    private final UserRepository userRepository;
+    private final int topProfiles;
+    private final int concurrency;
+    private final Duration timeout;
+
+    private volatile Health status = Health.outOfService().withDetail("state", "pending").build();
+    private Disposable warmup;
+
+    @Autowired
+    public CacheWarmer(CacheService cacheService,
+                       UserRepository userRepository,
+                       @Value("${app.cache-warmup.top-profiles:1000}") int topProfiles,
+                       @Value("${app.cache-warmup.concurrency:8}") int concurrency,
+                       @Value("${app.cache-warmup.timeout:60s}") Duration timeout) {
+        if (topProfiles < 0) {
+            throw new IllegalArgumentException("Top profiles must not be negative: " + topProfiles);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Warm-up timeout must be positive: " + timeout);
+        }
+        this.cacheService = cacheService;
+        this.userRepository = userRepository;
+        this.topProfiles = topProfiles;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    void onStarted() {
+        long started = System.nanoTime();
+        status = Health.outOfService().withDetail("state", "warming").build();
+        warmup = warm()
+            .timeout(timeout)
+            .subscribe(
+                warmed -> {
+                    long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+                    logger.info("Cache warm-up finished: {} profiles loaded in {} ms", warmed, elapsedMs);
+                    status = Health.up()
+                        .withDetail("state", "warm")
+                        .withDetail("profilesLoaded", warmed)
+                        .withDetail("durationMs", elapsedMs)
+                        .build();
+                },
+                error -> {
+                    // A cold cache is slower, not broken; do not keep the instance out of rotation
+                    logger.warn("Cache warm-up did not complete: {}", error.toString());
+                    status = Health.up()
+                        .withDetail("state", "incomplete")
+                        .withDetail("error", error.toString())
+                        .build();
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (warmup != null) {
+            warmup.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.just(status);
+    }
+
+    /**
+     * Load the hot profiles that are not cached yet; emits how many were written
+     */
+    Mono<Long> warm() {
+        return cacheService.getHotProfileIds(topProfiles)
+            .flatMap(userId -> cacheService.isUserProfileCached(userId)
+                .filter(cached -> !cached)
+                .map(cached -> userId), concurrency)
+            .buffer(LOAD_BATCH_SIZE)
+            .flatMap(userRepository::findAllById, concurrency)
+            .filter(user -> user.isActive())
+            .flatMap(user -> cacheService.cacheUserProfile(user.id(), UserResponse.fromUser(user), user.version()),
+                concurrency)
+            .filter(Boolean::booleanValue)
+            .count();
+    }
+}
@@ -3,12 +3,15 @@ package com.enterprise.portfolio.userservice.service;
 import com.enterprise.portfolio.userservice.events.UserEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Event Publisher Service for publishing user events to Kafka
  * 
@@ -17,12 +20,16 @@ import org.slf4j.LoggerFactory;
  * - Asynchronous event publishing
  * - Event serialization and deserialization
  * - Error handling for event publishing
+ * 
+ * Every record carries a {@value #PUBLISHED_AT_HEADER} header with the publish time in
+ * epoch milliseconds, so downstream pipelines can measure end-to-end latency.
  */
 @Service
 public class EventPublisher {
     
     private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
     private static final String USER_EVENTS_TOPIC = "user-events";
+    public static final String PUBLISHED_AT_HEADER = "published-at";
     
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
@@ -62,8 +69,18 @@ public class EventPublisher {
      */
     private Mono<Void> publishEvent(String eventType, String serializedEvent) {
         return Mono.fromFuture(
-            kafkaTemplate.send(USER_EVENTS_TOPIC, eventType, serializedEvent)
+            kafkaTemplate.send(timestamped(USER_EVENTS_TOPIC, eventType, serializedEvent))
                 .toCompletableFuture()
         ).flatMap(result -> Mono.empty());
     }
+    
+    /**
+     * Record stamped with the {@value #PUBLISHED_AT_HEADER} header
+     */
+    static ProducerRecord<String, String> timestamped(String topic, String key, String value) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, value);
+        record.headers().add(PUBLISHED_AT_HEADER,
+            Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.US_ASCII));
+        return record;
+    }
 }
\ No newline at end of file
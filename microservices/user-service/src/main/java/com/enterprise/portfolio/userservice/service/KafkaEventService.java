@@ -37,7 +37,7 @@ public class KafkaEventService {
             String key = event.userId().toString();
             
             CompletableFuture<SendResult<String, String>> future = 
-                kafkaTemplate.send(USER_EVENTS_TOPIC, key, eventJson);
+                kafkaTemplate.send(EventPublisher.timestamped(USER_EVENTS_TOPIC, key, eventJson));
             
             return Mono.fromFuture(future);
         } catch (Exception e) {
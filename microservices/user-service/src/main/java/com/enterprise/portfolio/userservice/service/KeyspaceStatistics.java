@@ -0,0 +1,232 @@
+package com.enterprise.portfolio.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-prefix key counts and memory estimates for the dashboard, without walking the keyspace.
+ *
+ * The total key count comes from {@code INFO keyspace}. A server-side script draws a
+ * fixed number of {@code RANDOMKEY} samples and sums {@code MEMORY USAGE} per prefix, so
+ * each refresh costs the same however many keys exist. Deletes issued through
+ * {@link CacheService} are tracked locally and applied to the estimates between refreshes.
+ *
+ * Reads return the last snapshot; a stale snapshot triggers one background refresh.
+ */
+@Service
+public class KeyspaceStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyspaceStatistics.class);
+
+    private static final int SAMPLE_SIZE = 200;
+    private static final Duration MAX_AGE = Duration.ofSeconds(30);
+
+    // ARGV[1] = sample size, ARGV[2..] = prefixes; returns [[count, bytes], ...] per prefix plus "other"
+    private static final RedisScript<String> SAMPLE_SCRIPT = RedisScript.of("""
+        local prefixes = {}
+        for i = 2, #ARGV do prefixes[#prefixes + 1] = ARGV[i] end
+        local totals = {}
+        for i = 1, #prefixes + 1 do totals[i] = {0, 0} end
+        for _ = 1, tonumber(ARGV[1]) do
+            local key = redis.call('RANDOMKEY')
+            if not key then break end
+            local slot = #prefixes + 1
+            for i, prefix in ipairs(prefixes) do
+                if string.sub(key, 1, #prefix) == prefix then slot = i break end
+            end
+            totals[slot][1] = totals[slot][1] + 1
+            totals[slot][2] = totals[slot][2] + (redis.call('MEMORY', 'USAGE', key) or 0)
+        end
+        return cjson.encode(totals)
+        """, String.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<CacheKeyPrefix, LongAdder> writes = new EnumMap<>(CacheKeyPrefix.class);
+    private final Map<CacheKeyPrefix, LongAdder> deletes = new EnumMap<>(CacheKeyPrefix.class);
+
+    private volatile Snapshot latest;
+    private final AtomicReference<Mono<Snapshot>> inFlight = new AtomicReference<>();
+
+    @Autowired
+    public KeyspaceStatistics(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                              ObjectMapper objectMapper) {
+        this.redisTemplate = reactiveStringRedisTemplate;
+        this.objectMapper = objectMapper;
+        for (CacheKeyPrefix prefix : CacheKeyPrefix.values()) {
+            writes.put(prefix, new LongAdder());
+            deletes.put(prefix, new LongAdder());
+        }
+    }
+
+    /**
+     * Record a successful write of one key in the given namespace
+     */
+    public void recordWrite(CacheKeyPrefix prefix) {
+        writes.get(prefix).increment();
+    }
+
+    /**
+     * Record keys removed from the given namespace
+     */
+    public void recordDeletes(CacheKeyPrefix prefix, long count) {
+        if (count > 0) {
+            deletes.get(prefix).add(count);
+        }
+    }
+
+    /**
+     * Latest statistics as a dashboard map
+     */
+    public Mono<Map<String, Object>> getStats() {
+        return snapshot().map(this::toMap);
+    }
+
+    Mono<Snapshot> snapshot() {
+        Snapshot current = latest;
+        if (current == null) {
+            return refresh();
+        }
+        if (current.isOlderThan(MAX_AGE)) {
+            refresh().subscribe(
+                refreshed -> { },
+                error -> logger.warn("Keyspace statistics refresh failed: {}", error.getMessage()));
+        }
+        return Mono.just(current);
+    }
+
+    private Mono<Snapshot> refresh() {
+        Mono<Snapshot> pending = inFlight.get();
+        if (pending != null) {
+            return pending;
+        }
+        Mono<Snapshot> created = sample()
+            .doOnNext(snapshot -> latest = snapshot)
+            .doFinally(signal -> inFlight.set(null))
+            .cache();
+        return inFlight.compareAndSet(null, created) ? created : refresh();
+    }
+
+    private Mono<Snapshot> sample() {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(SAMPLE_SIZE));
+        for (CacheKeyPrefix prefix : CacheKeyPrefix.values()) {
+            args.add(prefix.prefix());
+        }
+
+        Mono<Properties> keyspace = redisTemplate
+            .execute(connection -> connection.serverCommands().info("keyspace"))
+            .next();
+        Mono<String> sampled = redisTemplate.execute(SAMPLE_SCRIPT, List.of(), args).next();
+
+        return Mono.zip(keyspace, sampled).map(tuple -> {
+            long[] keyspaceCounts = parseKeyspace(tuple.getT1());
+            long[][] totals = parseSample(tuple.getT2());
+            Map<CacheKeyPrefix, Long> writeBaseline = new EnumMap<>(CacheKeyPrefix.class);
+            Map<CacheKeyPrefix, Long> deleteBaseline = new EnumMap<>(CacheKeyPrefix.class);
+            for (CacheKeyPrefix prefix : CacheKeyPrefix.values()) {
+                writeBaseline.put(prefix, writes.get(prefix).sum());
+                deleteBaseline.put(prefix, deletes.get(prefix).sum());
+            }
+            return new Snapshot(System.currentTimeMillis(), keyspaceCounts[0], keyspaceCounts[1],
+                totals, writeBaseline, deleteBaseline);
+        });
+    }
+
+    // db0:keys=1234,expires=1200,avg_ttl=81234
+    private static long[] parseKeyspace(Properties info) {
+        long keys = 0;
+        long expires = 0;
+        String db = info.getProperty("db0");
+        if (db != null) {
+            for (String field : db.split(",")) {
+                String[] pair = field.split("=", 2);
+                if (pair.length == 2 && pair[0].equals("keys")) {
+                    keys = Long.parseLong(pair[1].trim());
+                } else if (pair.length == 2 && pair[0].equals("expires")) {
+                    expires = Long.parseLong(pair[1].trim());
+                }
+            }
+        }
+        return new long[] {keys, expires};
+    }
+
+    private long[][] parseSample(String json) {
+        try {
+            return objectMapper.readValue(json, long[][].class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected keyspace sample: " + json, e);
+        }
+    }
+
+    private Map<String, Object> toMap(Snapshot snapshot) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total_keys", snapshot.totalKeys());
+        stats.put("keys_with_ttl", snapshot.keysWithTtl());
+        stats.put("sampled_keys", snapshot.sampledKeys());
+        stats.put("sampled_at", snapshot.sampledAt());
+
+        Map<String, Object> prefixes = new HashMap<>();
+        CacheKeyPrefix[] values = CacheKeyPrefix.values();
+        for (int i = 0; i < values.length; i++) {
+            CacheKeyPrefix prefix = values[i];
+            long writesSince = writes.get(prefix).sum() - snapshot.writeBaseline().get(prefix);
+            long deletesSince = deletes.get(prefix).sum() - snapshot.deleteBaseline().get(prefix);
+            Map<String, Object> entry = snapshot.estimate(i, deletesSince);
+            entry.put("writes_since_sample", writesSince);
+            entry.put("deletes_since_sample", deletesSince);
+            prefixes.put(prefix.prefix(), entry);
+        }
+        prefixes.put("other", snapshot.estimate(values.length, 0));
+        stats.put("prefixes", prefixes);
+        return stats;
+    }
+
+    record Snapshot(long sampledAt, long totalKeys, long keysWithTtl, long[][] totals,
+                    Map<CacheKeyPrefix, Long> writeBaseline, Map<CacheKeyPrefix, Long> deleteBaseline) {
+
+        boolean isOlderThan(Duration age) {
+            return System.currentTimeMillis() - sampledAt > age.toMillis();
+        }
+
+        long sampledKeys() {
+            long sampled = 0;
+            for (long[] slot : totals) {
+                sampled += slot[0];
+            }
+            return sampled;
+        }
+
+        Map<String, Object> estimate(int slot, long deletedSince) {
+            long sampled = sampledKeys();
+            long count = totals[slot][0];
+            long bytes = totals[slot][1];
+            long estimatedKeys = sampled == 0 ? 0 : Math.round((double) totalKeys * count / sampled);
+            estimatedKeys = Math.max(0, estimatedKeys - deletedSince);
+            long averageBytes = count == 0 ? 0 : bytes / count;
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("estimated_keys", estimatedKeys);
+            entry.put("average_key_bytes", averageBytes);
+            entry.put("estimated_memory_bytes", estimatedKeys * averageBytes);
+            return entry;
+        }
+    }
+}
@@ -14,23 +14,24 @@ public class MonitoringService {
 
     private final ReactiveRedisTemplate<String, Object> redisTemplate;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KeyspaceStatistics keyspaceStatistics;
 
     @Autowired
     public MonitoringService(ReactiveRedisTemplate<String, Object> redisTemplate,
-                            KafkaTemplate<String, String> kafkaTemplate) {
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            KeyspaceStatistics keyspaceStatistics) {
         this.redisTemplate = redisTemplate;
         this.kafkaTemplate = kafkaTemplate;
+        this.keyspaceStatistics = keyspaceStatistics;
     }
 
     /**
-     * Get comprehensive Redis statistics
+     * Get comprehensive Redis statistics (sampled, see {@link KeyspaceStatistics})
      */
     public Mono<Map<String, Object>> getRedisStats() {
-        return redisTemplate.scan()
-            .count()
-            .map(keyCount -> {
-                Map<String, Object> stats = new HashMap<>();
-                stats.put("total_keys", keyCount);
+        return keyspaceStatistics.getStats()
+            .map(keyspace -> {
+                Map<String, Object> stats = new HashMap<>(keyspace);
                 stats.put("connection_status", "CONNECTED");
                 stats.put("last_check", System.currentTimeMillis());
                 
@@ -0,0 +1,137 @@
+package com.enterprise.portfolio.userservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cluster-wide profile access frequencies, kept in a Redis sorted set for cache warm-up.
+ *
+ * Reads are counted in memory and written behind on a fixed interval, so the request path
+ * never waits on Redis for bookkeeping. Each flush also trims the set to the most accessed
+ * {@value #MAX_TRACKED} profiles, and at most once per {@link #DECAY_PERIOD} across all
+ * instances halves every score so that yesterday's popular users fade out.
+ */
+@Service
+public class ProfileAccessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileAccessTracker.class);
+
+    // Hash tag keeps both keys in one slot for the script
+    static final String HOT_PROFILES_KEY = "stats:{hot-profiles}";
+    private static final String DECAY_MARKER_KEY = "stats:{hot-profiles}:decayed";
+
+    static final int MAX_TRACKED = 10_000;
+    private static final Duration DECAY_PERIOD = Duration.ofHours(1);
+    private static final int FLUSH_CONCURRENCY = 8;
+
+    // KEYS[1] = sorted set, KEYS[2] = decay marker; ARGV[1] = entries kept, ARGV[2] = decay period seconds
+    private static final RedisScript<Long> TRIM_SCRIPT = RedisScript.of("""
+        if redis.call('SET', KEYS[2], '1', 'NX', 'EX', ARGV[2]) then
+            redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', '0.5')
+        end
+        return redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[1]) + 1))
+        """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final Duration flushInterval;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private Disposable schedule;
+
+    @Autowired
+    public ProfileAccessTracker(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                                @Value("${app.cache-warmup.flush-interval:30s}") Duration flushInterval) {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+        }
+        this.redisTemplate = reactiveStringRedisTemplate;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        schedule = Flux.interval(flushInterval, flushInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> flush()
+                .onErrorResume(error -> {
+                    logger.warn("Profile access flush failed: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        // Hand this instance's counts to the next one
+        flush()
+            .timeout(Duration.ofSeconds(5))
+            .onErrorResume(error -> {
+                logger.warn("Final profile access flush failed: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    /**
+     * Count one read of a user's profile
+     */
+    public void record(Long userId) {
+        pending.computeIfAbsent(userId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * The most accessed user IDs, hottest first
+     */
+    public Flux<Long> hottest(int limit) {
+        if (limit <= 0) {
+            return Flux.empty();
+        }
+        return redisTemplate.opsForZSet()
+            .reverseRange(HOT_PROFILES_KEY, Range.closed(0L, (long) limit - 1))
+            .map(Long::valueOf);
+    }
+
+    /**
+     * Write the counts gathered since the last flush to Redis
+     */
+    public Mono<Void> flush() {
+        // Counts are approximate: a read racing with the drain may be dropped
+        List<Map.Entry<Long, Long>> counts = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            LongAdder adder = pending.remove(userId);
+            if (adder != null) {
+                counts.add(Map.entry(userId, adder.sum()));
+            }
+        }
+        if (counts.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(counts)
+            .flatMap(count -> redisTemplate.opsForZSet()
+                .incrementScore(HOT_PROFILES_KEY, count.getKey().toString(), count.getValue()), FLUSH_CONCURRENCY)
+            .then(redisTemplate.execute(TRIM_SCRIPT, List.of(HOT_PROFILES_KEY, DECAY_MARKER_KEY),
+                    List.of(String.valueOf(MAX_TRACKED), String.valueOf(DECAY_PERIOD.toSeconds())))
+                .then())
+            .doOnSuccess(done -> logger.debug("Flushed access counts for {} profiles", counts.size()));
+    }
+}
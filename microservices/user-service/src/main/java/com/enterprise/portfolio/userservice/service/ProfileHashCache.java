@@ -0,0 +1,206 @@
+package com.enterprise.portfolio.userservice.service;
+
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * User profiles cached as Redis hashes, one field per {@link UserResponse} component.
+ *
+ * Every write carries the row's {@code version} column, stored in the {@code _v} field.
+ * A full write only replaces an older cached version; a partial write sets just the
+ * changed fields and only applies when the cached hash is exactly the version the update
+ * started from. Both run as scripts, so concurrent writers cannot interleave. A cached
+ * value of another type (a blob written before this layout) is replaced.
+ */
+@Service
+public class ProfileHashCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileHashCache.class);
+
+    static final Duration PROFILE_TTL = Duration.ofMinutes(30);
+
+    private static final String VERSION_FIELD = "_v";
+    private static final String ROLE_SEPARATOR = "\u001F";
+
+    // KEYS[1] = profile; ARGV[1] = version, ARGV[2] = ttl seconds, ARGV[3..] = field/value pairs
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+        local kind = redis.call('TYPE', KEYS[1])['ok']
+        if kind == 'hash' then
+            local cached = tonumber(redis.call('HGET', KEYS[1], '_v'))
+            if cached and cached >= tonumber(ARGV[1]) then return 0 end
+        end
+        if kind ~= 'none' then redis.call('DEL', KEYS[1]) end
+        redis.call('HSET', KEYS[1], '_v', ARGV[1], unpack(ARGV, 3))
+        redis.call('EXPIRE', KEYS[1], ARGV[2])
+        return 1
+        """, Long.class);
+
+    // KEYS[1] = profile; ARGV[1] = expected cached version, ARGV[2] = new version, ARGV[3] = ttl seconds,
+    // ARGV[4] = number of field/value pairs to set, then the pairs, then fields to remove
+    private static final RedisScript<Long> PATCH_SCRIPT = RedisScript.of("""
+        if redis.call('TYPE', KEYS[1])['ok'] ~= 'hash' then return 0 end
+        if redis.call('HGET', KEYS[1], '_v') ~= ARGV[1] then return 0 end
+        local count = tonumber(ARGV[4])
+        redis.call('HSET', KEYS[1], '_v', ARGV[2], unpack(ARGV, 5, 4 + count * 2))
+        if #ARGV > 4 + count * 2 then
+            redis.call('HDEL', KEYS[1], unpack(ARGV, 5 + count * 2))
+        end
+        redis.call('EXPIRE', KEYS[1], ARGV[3])
+        return 1
+        """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    public ProfileHashCache(ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate) {
+        this.redisTemplate = reactiveStringRedisTemplate;
+    }
+
+    /**
+     * Cached profile, empty when absent or not decodable
+     */
+    public Mono<UserResponse> get(Long userId) {
+        String key = CacheKeyPrefix.USER_PROFILE.key(userId.toString());
+        return redisTemplate.<String, String>opsForHash().entries(key)
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .filter(fields -> fields.containsKey(VERSION_FIELD))
+            .map(ProfileHashCache::decode)
+            .onErrorResume(error -> {
+                logger.warn("Ignoring unreadable cached profile {}: {}", key, error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Write the whole profile unless a newer version is already cached
+     */
+    public Mono<Boolean> put(Long userId, UserResponse profile, Long version) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(versionOf(version)));
+        args.add(String.valueOf(PROFILE_TTL.toSeconds()));
+        encode(profile).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        return run(PUT_SCRIPT, userId, args);
+    }
+
+    /**
+     * Apply an update as a partial write of the fields that differ between the two
+     * versions. Falls back to a full write when the cache does not hold {@code previousVersion}.
+     */
+    public Mono<Boolean> update(Long userId, UserResponse previous, Long previousVersion,
+                                UserResponse updated, Long updatedVersion) {
+        Map<String, String> before = encode(previous);
+        Map<String, String> after = encode(updated);
+
+        List<String> set = new ArrayList<>();
+        after.forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                set.add(field);
+                set.add(value);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        for (String field : before.keySet()) {
+            if (!after.containsKey(field)) {
+                removed.add(field);
+            }
+        }
+
+        List<String> args = new ArrayList<>(4 + set.size() + removed.size());
+        args.add(String.valueOf(versionOf(previousVersion)));
+        args.add(String.valueOf(versionOf(updatedVersion)));
+        args.add(String.valueOf(PROFILE_TTL.toSeconds()));
+        args.add(String.valueOf(set.size() / 2));
+        args.addAll(set);
+        args.addAll(removed);
+
+        return run(PATCH_SCRIPT, userId, args)
+            .flatMap(patched -> patched ? Mono.just(true) : put(userId, updated, updatedVersion));
+    }
+
+    private Mono<Boolean> run(RedisScript<Long> script, Long userId, List<String> args) {
+        String key = CacheKeyPrefix.USER_PROFILE.key(userId.toString());
+        return redisTemplate.execute(script, List.of(key), args)
+            .next()
+            .map(result -> result == 1L)
+            .defaultIfEmpty(false);
+    }
+
+    // Rows written before optimistic locking have no version yet
+    private static long versionOf(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    static Map<String, String> encode(UserResponse profile) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        putIfPresent(fields, "id", profile.id());
+        putIfPresent(fields, "username", profile.username());
+        putIfPresent(fields, "email", profile.email());
+        putIfPresent(fields, "firstName", profile.firstName());
+        putIfPresent(fields, "lastName", profile.lastName());
+        putIfPresent(fields, "emailVerified", profile.emailVerified());
+        putIfPresent(fields, "enabled", profile.enabled());
+        if (profile.roles() != null) {
+            fields.put("roles", String.join(ROLE_SEPARATOR, profile.roles()));
+        }
+        putIfPresent(fields, "lastLoginAt", profile.lastLoginAt());
+        putIfPresent(fields, "createdAt", profile.createdAt());
+        putIfPresent(fields, "updatedAt", profile.updatedAt());
+        putIfPresent(fields, "profileCompleteness", profile.profileCompleteness());
+        putIfPresent(fields, "accountStatus", profile.accountStatus());
+        return fields;
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name, value.toString());
+        }
+    }
+
+    static UserResponse decode(Map<String, String> fields) {
+        String roles = fields.get("roles");
+        return new UserResponse(
+            longOrNull(fields.get("id")),
+            fields.get("username"),
+            fields.get("email"),
+            fields.get("firstName"),
+            fields.get("lastName"),
+            booleanOrNull(fields.get("emailVerified")),
+            booleanOrNull(fields.get("enabled")),
+            roles == null ? null : roles.isEmpty() ? new String[0] : roles.split(ROLE_SEPARATOR, -1),
+            dateTimeOrNull(fields.get("lastLoginAt")),
+            dateTimeOrNull(fields.get("createdAt")),
+            dateTimeOrNull(fields.get("updatedAt")),
+            fields.get("profileCompleteness") != null ? Integer.valueOf(fields.get("profileCompleteness")) : null,
+            fields.get("accountStatus")
+        );
+    }
+
+    private static Long longOrNull(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    private static Boolean booleanOrNull(String value) {
+        return value != null ? Boolean.valueOf(value) : null;
+    }
+
+    private static LocalDateTime dateTimeOrNull(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+}
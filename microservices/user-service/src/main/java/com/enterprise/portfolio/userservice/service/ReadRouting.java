@@ -0,0 +1,86 @@
+package com.enterprise.portfolio.userservice.service;
+
+import com.enterprise.portfolio.userservice.config.DatabaseRoute;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Decides which repository reads may run on a read replica.
+ *
+ * Reads that tolerate lag go to a replica. Reads of a user's own data go back to the
+ * primary for {@code app.datasource.read-replicas.read-your-writes} after that user's last
+ * write on this instance, so an update is never followed by a stale read of it. Writes,
+ * read-modify-write paths and reads that fill the shared profile cache never go through
+ * here and always use the primary, since the stickiness is only known to this instance.
+ */
+@Service
+public class ReadRouting {
+
+    // Expired entries are swept once the map grows past this
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long stickinessNanos;
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadRouting(@Value("${app.datasource.read-replicas.read-your-writes:5s}") Duration stickiness) {
+        if (stickiness.isNegative()) {
+            throw new IllegalArgumentException("Read-your-writes window must not be negative: " + stickiness);
+        }
+        this.stickinessNanos = stickiness.toNanos();
+    }
+
+    /**
+     * Run a read that tolerates replica lag on a replica
+     */
+    public <T> Mono<T> replica(Mono<T> query) {
+        return DatabaseRoute.REPLICA.apply(query);
+    }
+
+    public <T> Flux<T> replica(Flux<T> query) {
+        return DatabaseRoute.REPLICA.apply(query);
+    }
+
+    /**
+     * Run a read of one user's data on a replica, repeating it on the primary when the row
+     * found belongs to a user who wrote recently. For lookups by a key other than the ID,
+     * where the user is only known once the row is read.
+     */
+    public <T> Mono<T> forUser(Mono<T> query, Function<T, Long> userIdOf) {
+        return replica(query)
+            .flatMap(row -> isPinnedToPrimary(userIdOf.apply(row)) ? DatabaseRoute.PRIMARY.apply(query) : Mono.just(row));
+    }
+
+    private boolean isPinnedToPrimary(Long userId) {
+        Long until = userId == null ? null : primaryUntil.get(userId);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                return true;
+            }
+            primaryUntil.remove(userId, until);
+        }
+        return false;
+    }
+
+    /**
+     * Pin the user's reads to the primary for the read-your-writes window
+     */
+    public void recordWrite(Long userId) {
+        if (stickinessNanos == 0 || userId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        primaryUntil.put(userId, now + stickinessNanos);
+        if (primaryUntil.size() > SWEEP_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> now - until >= 0);
+        }
+    }
+}
@@ -1,152 +1,265 @@
 package com.enterprise.portfolio.userservice.service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Map;
 
+/**
+ * Request-level counters and the recent activity log behind the monitoring dashboard.
+ *
+ * Counters are striped {@link LongAdder}s, so request threads never contend on a CAS,
+ * and are exposed on {@code /actuator/prometheus} as monotonic counters. The dashboard
+ * reads a {@link MetricsSnapshot}; resetting only moves the dashboard's baseline, the
+ * Prometheus series keep counting. Traffic generated by the monitoring simulation
+ * endpoints is counted separately, under {@code user.simulated.*}.
+ */
 @Service
 public class RealTimeMetricsService {
 
     // User operation counters
-    private final AtomicLong userRegistrations = new AtomicLong(0);
-    private final AtomicLong userLogins = new AtomicLong(0);
-    private final AtomicLong userUpdates = new AtomicLong(0);
-    private final AtomicLong userSearches = new AtomicLong(0);
+    private final LongAdder userRegistrations = new LongAdder();
+    private final LongAdder userLogins = new LongAdder();
+    private final LongAdder userUpdates = new LongAdder();
+    private final LongAdder userSearches = new LongAdder();
     
     // Infrastructure operation counters
-    private final AtomicLong redisOperations = new AtomicLong(0);
-    private final AtomicLong kafkaEvents = new AtomicLong(0);
-    private final AtomicLong cacheHits = new AtomicLong(0);
-    private final AtomicLong cacheMisses = new AtomicLong(0);
+    private final LongAdder redisOperations = new LongAdder();
+    private final LongAdder kafkaEvents = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    // Demo traffic from the simulation endpoints, kept out of the series above
+    private final LongAdder simulatedRedisOperations = new LongAdder();
+    private final LongAdder simulatedKafkaEvents = new LongAdder();
+    private final LongAdder simulatedCacheHits = new LongAdder();
+    private final LongAdder simulatedCacheMisses = new LongAdder();
+
+    // Dashboard values are reported relative to the last reset
+    private volatile MetricsSnapshot baseline = MetricsSnapshot.ZERO;
     
-    // Recent activity log (thread-safe)
-    private final List<ActivityLogEntry> recentActivity = new ArrayList<>();
-    private final Object activityLock = new Object();
+    // Recent activity log (lock-free; messages are formatted when read)
     private static final int MAX_ACTIVITY_ENTRIES = 100;
+    private final ActivityRingBuffer recentActivity = new ActivityRingBuffer(128);
+
+    public RealTimeMetricsService(MeterRegistry meterRegistry) {
+        registerCounter(meterRegistry, "user.operations", "User operations handled", userRegistrations, "operation", "registration");
+        registerCounter(meterRegistry, "user.operations", "User operations handled", userLogins, "operation", "login");
+        registerCounter(meterRegistry, "user.operations", "User operations handled", userUpdates, "operation", "update");
+        registerCounter(meterRegistry, "user.operations", "User operations handled", userSearches, "operation", "search");
+        registerCounter(meterRegistry, "user.redis.operations", "Redis commands issued by the user service", redisOperations);
+        registerCounter(meterRegistry, "user.kafka.events", "Kafka events published by the user service", kafkaEvents);
+        registerCounter(meterRegistry, "user.cache.requests", "User cache lookups", cacheHits, "result", "hit");
+        registerCounter(meterRegistry, "user.cache.requests", "User cache lookups", cacheMisses, "result", "miss");
+        registerCounter(meterRegistry, "user.simulated.redis.operations", "Redis commands issued by the monitoring simulation", simulatedRedisOperations);
+        registerCounter(meterRegistry, "user.simulated.kafka.events", "Kafka events published by the monitoring simulation", simulatedKafkaEvents);
+        registerCounter(meterRegistry, "user.simulated.cache.requests", "Cache lookups made by the monitoring simulation", simulatedCacheHits, "result", "hit");
+        registerCounter(meterRegistry, "user.simulated.cache.requests", "Cache lookups made by the monitoring simulation", simulatedCacheMisses, "result", "miss");
+    }
+
+    private static void registerCounter(MeterRegistry registry, String name, String description,
+                                        LongAdder adder, String... tags) {
+        FunctionCounter.builder(name, adder, LongAdder::sum)
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
 
     // Activity tracking methods for user operations
     public void recordUserRegistration(String username) {
-        userRegistrations.incrementAndGet();
-        addActivityEntry("USER_REGISTRATION", "User registered: " + username, "success");
+        userRegistrations.increment();
+        addActivityEntry(ActivityType.USER_REGISTRATION, username, null, 0);
     }
 
     public void recordUserLogin(String username) {
-        userLogins.incrementAndGet();
-        addActivityEntry("USER_LOGIN", "User logged in: " + username, "success");
+        userLogins.increment();
+        addActivityEntry(ActivityType.USER_LOGIN, username, null, 0);
     }
 
     public void recordUserUpdate(String username) {
-        userUpdates.incrementAndGet();
-        addActivityEntry("USER_UPDATE", "User profile updated: " + username, "success");
+        userUpdates.increment();
+        addActivityEntry(ActivityType.USER_UPDATE, username, null, 0);
     }
 
     public void recordUserSearch(String searchTerm, int resultCount) {
-        userSearches.incrementAndGet();
-        addActivityEntry("USER_SEARCH", "Search performed for '" + searchTerm + "' - " + resultCount + " results", "info");
+        userSearches.increment();
+        addActivityEntry(ActivityType.USER_SEARCH, searchTerm, null, resultCount);
     }
 
     // Activity tracking methods for infrastructure operations
     public void recordRedisOperation(String operation, String key) {
-        redisOperations.incrementAndGet();
-        addActivityEntry("REDIS_OPERATION", operation + " on key: " + key, "info");
+        redisOperations.increment();
+        addActivityEntry(ActivityType.REDIS_OPERATION, key, operation, 0);
     }
 
     public void recordKafkaEvent(String topic, String event) {
-        kafkaEvents.incrementAndGet();
-        addActivityEntry("KAFKA_EVENT", "Event published to " + topic + ": " + event, "info");
+        kafkaEvents.increment();
+        addActivityEntry(ActivityType.KAFKA_EVENT, topic, event, 0);
     }
 
     public void recordCacheHit(String key) {
-        cacheHits.incrementAndGet();
-        addActivityEntry("CACHE_HIT", "Cache hit for key: " + key, "success");
+        cacheHits.increment();
+        addActivityEntry(ActivityType.CACHE_HIT, key, null, 0);
     }
 
     public void recordCacheMiss(String key) {
-        cacheMisses.incrementAndGet();
-        addActivityEntry("CACHE_MISS", "Cache miss for key: " + key, "warning");
+        cacheMisses.increment();
+        addActivityEntry(ActivityType.CACHE_MISS, key, null, 0);
+    }
+
+    // Simulation endpoints; shown in the activity log but not counted as real traffic
+    public void recordSimulatedRedisOperation(String operation, String key) {
+        simulatedRedisOperations.increment();
+        addActivityEntry(ActivityType.REDIS_OPERATION, key, operation, 0);
+    }
+
+    public void recordSimulatedKafkaEvent(String topic, String event) {
+        simulatedKafkaEvents.increment();
+        addActivityEntry(ActivityType.KAFKA_EVENT, topic, event, 0);
+    }
+
+    public void recordSimulatedCacheHit(String key) {
+        simulatedCacheHits.increment();
+        addActivityEntry(ActivityType.CACHE_HIT, key, null, 0);
+    }
+
+    public void recordSimulatedCacheMiss(String key) {
+        simulatedCacheMisses.increment();
+        addActivityEntry(ActivityType.CACHE_MISS, key, null, 0);
+    }
+
+    public long simulatedRedisOperations() {
+        return simulatedRedisOperations.sum();
+    }
+
+    public long simulatedKafkaEvents() {
+        return simulatedKafkaEvents.sum();
+    }
+
+    /**
+     * Current counter values since the last reset. Reads each adder once, without locking.
+     */
+    public MetricsSnapshot snapshot() {
+        return current().minus(baseline);
+    }
+
+    private MetricsSnapshot current() {
+        return new MetricsSnapshot(
+            userRegistrations.sum(), userLogins.sum(), userUpdates.sum(), userSearches.sum(),
+            redisOperations.sum(), kafkaEvents.sum(), cacheHits.sum(), cacheMisses.sum());
     }
 
     // Get all current metrics
     public Mono<Map<String, Object>> getCurrentMetrics() {
-        return Mono.fromCallable(() -> {
-            Map<String, Object> metrics = new ConcurrentHashMap<>();
-            
-            // User operation metrics
-            metrics.put("user_registrations", userRegistrations.get());
-            metrics.put("user_logins", userLogins.get());
-            metrics.put("user_updates", userUpdates.get());
-            metrics.put("user_searches", userSearches.get());
-            
-            // Infrastructure metrics
-            metrics.put("redis_operations", redisOperations.get());
-            metrics.put("kafka_events", kafkaEvents.get());
-            metrics.put("cache_hits", cacheHits.get());
-            metrics.put("cache_misses", cacheMisses.get());
-            
-            // Calculated metrics
-            long totalCacheOperations = cacheHits.get() + cacheMisses.get();
-            double cacheHitRatio = totalCacheOperations > 0 ? 
-                (double) cacheHits.get() / totalCacheOperations * 100.0 : 0.0;
-            metrics.put("cache_hit_ratio", cacheHitRatio);
-            
-            long totalUserOperations = userRegistrations.get() + userLogins.get() + 
-                                     userUpdates.get() + userSearches.get();
-            metrics.put("total_user_operations", totalUserOperations);
-            
-            metrics.put("timestamp", System.currentTimeMillis());
-            
-            return metrics;
-        });
+        return Mono.fromCallable(() -> snapshot().toMap());
     }
 
-    // Get recent activity log
+    // Get recent activity log, newest first
     public List<ActivityLogEntry> getRecentActivity() {
-        synchronized (activityLock) {
-            return new ArrayList<>(recentActivity);
-        }
+        return recentActivity.snapshot(MAX_ACTIVITY_ENTRIES).stream()
+            .map(ActivityLogEntry::from)
+            .toList();
     }
 
     // Reset all metrics
     public void resetAllMetrics() {
-        userRegistrations.set(0);
-        userLogins.set(0);
-        userUpdates.set(0);
-        userSearches.set(0);
-        redisOperations.set(0);
-        kafkaEvents.set(0);
-        cacheHits.set(0);
-        cacheMisses.set(0);
+        baseline = current();
         
-        synchronized (activityLock) {
-            recentActivity.clear();
-        }
+        recentActivity.clear();
         
-        addActivityEntry("SYSTEM", "All metrics reset", "info");
-    }
-
-    // Internal method to add activity entries
-    private void addActivityEntry(String type, String message, String level) {
-        synchronized (activityLock) {
-            ActivityLogEntry entry = new ActivityLogEntry(
-                System.currentTimeMillis(),
-                LocalDateTime.now(),
-                type,
-                message,
-                level
-            );
-            
-            recentActivity.add(0, entry); // Add to front
-            
-            // Keep only the most recent entries
-            while (recentActivity.size() > MAX_ACTIVITY_ENTRIES) {
-                recentActivity.remove(recentActivity.size() - 1);
-            }
+        addActivityEntry(ActivityType.SYSTEM, null, null, 0);
+    }
+
+    // Internal method to add activity entries; called on every request, so it only
+    // stores references and primitives
+    private void addActivityEntry(ActivityType type, String subject, String detail, long count) {
+        recentActivity.add(System.currentTimeMillis(), type, subject, detail, count);
+    }
+
+    // Activity types with their level and message layout
+    enum ActivityType {
+        USER_REGISTRATION("success"),
+        USER_LOGIN("success"),
+        USER_UPDATE("success"),
+        USER_SEARCH("info"),
+        REDIS_OPERATION("info"),
+        KAFKA_EVENT("info"),
+        CACHE_HIT("success"),
+        CACHE_MISS("warning"),
+        SYSTEM("info");
+
+        private final String level;
+
+        ActivityType(String level) {
+            this.level = level;
+        }
+
+        String level() {
+            return level;
+        }
+
+        String message(String subject, String detail, long count) {
+            return switch (this) {
+                case USER_REGISTRATION -> "User registered: " + subject;
+                case USER_LOGIN -> "User logged in: " + subject;
+                case USER_UPDATE -> "User profile updated: " + subject;
+                case USER_SEARCH -> "Search performed for '" + subject + "' - " + count + " results";
+                case REDIS_OPERATION -> detail + " on key: " + subject;
+                case KAFKA_EVENT -> "Event published to " + subject + ": " + detail;
+                case CACHE_HIT -> "Cache hit for key: " + subject;
+                case CACHE_MISS -> "Cache miss for key: " + subject;
+                case SYSTEM -> "All metrics reset";
+            };
+        }
+    }
+
+    /**
+     * Point-in-time copy of the counters, as shown on the dashboard.
+     */
+    public record MetricsSnapshot(long userRegistrations, long userLogins, long userUpdates, long userSearches,
+                                  long redisOperations, long kafkaEvents, long cacheHits, long cacheMisses) {
+
+        static final MetricsSnapshot ZERO = new MetricsSnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+
+        MetricsSnapshot minus(MetricsSnapshot other) {
+            return new MetricsSnapshot(
+                userRegistrations - other.userRegistrations, userLogins - other.userLogins,
+                userUpdates - other.userUpdates, userSearches - other.userSearches,
+                redisOperations - other.redisOperations, kafkaEvents - other.kafkaEvents,
+                cacheHits - other.cacheHits, cacheMisses - other.cacheMisses);
+        }
+
+        public double cacheHitRatio() {
+            long total = cacheHits + cacheMisses;
+            return total > 0 ? (double) cacheHits / total * 100.0 : 0.0;
+        }
+
+        public long totalUserOperations() {
+            return userRegistrations + userLogins + userUpdates + userSearches;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("user_registrations", userRegistrations);
+            metrics.put("user_logins", userLogins);
+            metrics.put("user_updates", userUpdates);
+            metrics.put("user_searches", userSearches);
+            metrics.put("redis_operations", redisOperations);
+            metrics.put("kafka_events", kafkaEvents);
+            metrics.put("cache_hits", cacheHits);
+            metrics.put("cache_misses", cacheMisses);
+            metrics.put("cache_hit_ratio", cacheHitRatio());
+            metrics.put("total_user_operations", totalUserOperations());
+            metrics.put("timestamp", System.currentTimeMillis());
+            return metrics;
         }
     }
 
@@ -166,6 +279,17 @@ public class RealTimeMetricsService {
             this.level = level;
         }
 
+        static ActivityLogEntry from(ActivityRingBuffer.Slot slot) {
+            ActivityType type = slot.type();
+            return new ActivityLogEntry(
+                slot.timestamp(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.timestamp()), ZoneId.systemDefault()),
+                type.name(),
+                type.message(slot.subject(), slot.detail(), slot.count()),
+                type.level()
+            );
+        }
+
         // Getters
         public long getTimestamp() { return timestamp; }
         public LocalDateTime getDateTime() { return dateTime; }
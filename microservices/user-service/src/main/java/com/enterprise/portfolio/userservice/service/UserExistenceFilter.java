@@ -0,0 +1,283 @@
+package com.enterprise.portfolio.userservice.service;
+
+import com.enterprise.portfolio.userservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter over every user ID, username and email, used to answer
+ * "definitely does not exist" without touching Redis or Postgres.
+ *
+ * The filter is rebuilt from the database on a fixed interval and swapped in atomically.
+ * Users created while a rebuild runs are added to both the live and the new filter, so
+ * a registration is never lost. Until the first build finishes every lookup is a
+ * "maybe", i.e. callers fall through to the normal path.
+ *
+ * Each instance keeps its own filter, so keys added on one instance are published on
+ * {@value #CHANNEL} and added by every other instance. A miss is only trusted where that
+ * cannot lose a key: IDs above the highest ID seen by the last build always fall through,
+ * and username and email misses are only trusted while the subscription that was active
+ * when the last build started is still up. After a reconnect the filter is rebuilt.
+ */
+@Service
+public class UserExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    static final String CHANNEL = "user-filter:keys";
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_EXPECTED_USERS = 10_000;
+    // Sized for growth between rebuilds
+    private static final double HEADROOM = 1.5;
+    private static final long NOT_LISTENING = -1;
+
+    private final UserRepository userRepository;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final Duration rebuildInterval;
+
+    private final Sinks.Many<Long> rebuildRequests = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicLong subscriptions = new AtomicLong();
+
+    private volatile Snapshot current;
+    private volatile Bits building;
+    // Generation of the active channel subscription, or NOT_LISTENING
+    private volatile long listening = NOT_LISTENING;
+    private Disposable schedule;
+    private Disposable listener;
+
+    /**
+     * One build of the filter, with what it can be trusted for
+     */
+    private record Snapshot(Bits bits, long maxId, long subscription) {}
+
+    @Autowired
+    public UserExistenceFilter(UserRepository userRepository,
+                               ReactiveRedisTemplate<String, String> reactiveStringRedisTemplate,
+                               ReactiveRedisMessageListenerContainer listenerContainer,
+                               @Value("${app.user-filter.rebuild-interval:15m}") Duration rebuildInterval) {
+        if (rebuildInterval.isNegative() || rebuildInterval.isZero()) {
+            throw new IllegalArgumentException("Rebuild interval must be positive: " + rebuildInterval);
+        }
+        this.userRepository = userRepository;
+        this.redisTemplate = reactiveStringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        listener = Mono.defer(() -> listenerContainer.receiveLater(ChannelTopic.of(CHANNEL)))
+            .flatMapMany(messages -> {
+                listening = subscriptions.incrementAndGet();
+                // Keys published before the subscription was up are only in the database
+                rebuildRequests.tryEmitNext(listening);
+                return messages;
+            })
+            .doOnNext(message -> addKeys(message.getMessage().split("\n")))
+            .doOnTerminate(() -> listening = NOT_LISTENING)
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .doBeforeRetry(signal -> logger.warn("User existence filter subscription lost, resubscribing: {}",
+                    signal.failure().getMessage())))
+            .subscribe();
+
+        schedule = Flux.merge(Flux.interval(Duration.ZERO, rebuildInterval), rebuildRequests.asFlux())
+            .onBackpressureDrop()
+            .concatMap(tick -> rebuild()
+                .onErrorResume(error -> {
+                    logger.warn("User existence filter rebuild failed: {}", error.getMessage());
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        if (listener != null) {
+            listener.dispose();
+        }
+    }
+
+    /**
+     * Whether the first build has completed and lookups can return a definite miss
+     */
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Reload the filter from the database
+     */
+    public Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            // Captured before the scan: keys published after it are received into the new filter
+            long subscription = listening;
+            return userRepository.count()
+                .flatMap(count -> {
+                    long expectedKeys = (long) (Math.max(count, MIN_EXPECTED_USERS) * HEADROOM) * 3;
+                    Bits next = new Bits(expectedKeys, FALSE_POSITIVE_RATE);
+                    AtomicLong maxId = new AtomicLong();
+                    building = next;
+                    return userRepository.findAllKeys()
+                        .doOnNext(keys -> {
+                            maxId.accumulateAndGet(keys.id(), Math::max);
+                            next.add(idKey(keys.id()));
+                            next.add(usernameKey(keys.username()));
+                            next.add(emailKey(keys.email()));
+                        })
+                        .count()
+                        .doOnNext(users -> {
+                            current = new Snapshot(next, maxId.get(), subscription);
+                            logger.info("User existence filter rebuilt: {} users, {} KiB", users, next.sizeInBytes() / 1024);
+                        })
+                        .doFinally(signal -> building = null);
+                });
+        }).then();
+    }
+
+    /**
+     * Register a new or changed user on every instance; call after the row is committed
+     */
+    public void add(Long id, String username, String email) {
+        String[] keys = {idKey(id), usernameKey(username), emailKey(email)};
+        addKeys(keys);
+        redisTemplate.convertAndSend(CHANNEL, String.join("\n", keys))
+            .retryWhen(Retry.backoff(3, Duration.ofMillis(100)))
+            .subscribe(
+                receivers -> { },
+                error -> logger.warn("Failed to publish user existence filter keys for user {}: {}", id, error.getMessage()));
+    }
+
+    public boolean mightContainId(Long id) {
+        Snapshot snapshot = current;
+        // IDs created after the build may be missing if their publication has not arrived yet
+        return snapshot == null || id == null || id > snapshot.maxId() || snapshot.bits().mightContain(idKey(id));
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContainName(usernameKey(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContainName(emailKey(email));
+    }
+
+    private boolean mightContainName(String key) {
+        Snapshot snapshot = current;
+        // Without an unbroken subscription since the build, keys from other instances may be missing
+        return snapshot == null
+            || snapshot.subscription() == NOT_LISTENING
+            || snapshot.subscription() != listening
+            || snapshot.bits().mightContain(key);
+    }
+
+    private void addKeys(String[] keys) {
+        Snapshot live = current;
+        Bits next = building;
+        for (Bits bits : new Bits[] {live == null ? null : live.bits(), next}) {
+            if (bits != null) {
+                for (String key : keys) {
+                    bits.add(key);
+                }
+            }
+        }
+    }
+
+    private static String idKey(Long id) {
+        return "i:" + id;
+    }
+
+    // Username and email lookups are case-insensitive throughout the repository
+    private static String usernameKey(String username) {
+        return "u:" + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + (email == null ? "" : email.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Lock-free bit array with k probes derived from one 64-bit hash (double hashing).
+     */
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        Bits(long expectedKeys, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return (long) words.length() * Long.BYTES;
+        }
+
+        // FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+}
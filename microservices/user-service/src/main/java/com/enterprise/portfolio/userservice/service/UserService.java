@@ -8,6 +8,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,19 +33,25 @@ public class UserService {
     private final CacheService cacheService;
     private final KafkaEventService kafkaEventService;
     private final RealTimeMetricsService metricsService;
+    private final UserExistenceFilter existenceFilter;
+    private final ReadRouting readRouting;
     
     public UserService(UserRepository userRepository, 
                       PasswordEncoder passwordEncoder,
                       EventPublisher eventPublisher,
                       CacheService cacheService,
                       KafkaEventService kafkaEventService,
-                      RealTimeMetricsService metricsService) {
+                      RealTimeMetricsService metricsService,
+                      UserExistenceFilter existenceFilter,
+                      ReadRouting readRouting) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.eventPublisher = eventPublisher;
         this.cacheService = cacheService;
         this.kafkaEventService = kafkaEventService;
         this.metricsService = metricsService;
+        this.existenceFilter = existenceFilter;
+        this.readRouting = readRouting;
     }
     
     /**
@@ -56,9 +63,17 @@ public class UserService {
         return validateUserDoesNotExist(request.username(), request.email())
             .then(createAndSaveUser(request))
             .doOnNext(user -> {
+                existenceFilter.add(user.id(), user.username(), user.email());
+                readRouting.recordWrite(user.id());
                 publishUserRegisteredEvent(user, generateCorrelationId());
                 metricsService.recordUserRegistration(user.username());
             })
+            .flatMap(user -> cacheService.clearMissingUser(user.id(), user.username())
+                .onErrorResume(error -> {
+                    logger.warn("Failed to clear negative cache entries for user: {}", user.id(), error);
+                    return Mono.empty();
+                })
+                .thenReturn(user))
             .map(UserResponse::fromUser)
             .doOnSuccess(user -> logger.info("User registered successfully: {}", user.username()))
             .doOnError(error -> logger.error("Failed to register user: {}", request.username(), error));
@@ -89,29 +104,47 @@ public class UserService {
     public Mono<UserResponse> getUserById(Long userId) {
         logger.debug("Fetching user by ID: {}", userId);
         
+        // IDs that were never created are rejected without I/O
+        if (!existenceFilter.mightContainId(userId)) {
+            logger.debug("User ID rejected by existence filter: {}", userId);
+            return Mono.empty();
+        }
+        
         // Try to get from cache first
-        return cacheService.getCachedUserProfile(userId.toString())
-            .cast(UserResponse.class)
+        return cacheService.getUserProfile(userId)
             .doOnNext(cachedUser -> {
                 logger.debug("User found in cache: {}", cachedUser.username());
                 metricsService.recordCacheHit("user:" + userId);
             })
             .switchIfEmpty(
-                // If not in cache, fetch from database
-                userRepository.findById(userId)
-                    .filter(user -> user.isActive())
-                    .map(UserResponse::fromUser)
-                    .flatMap(userResponse -> 
-                        // Cache the result
-                        cacheService.cacheUserProfile(userId.toString(), userResponse)
-                            .thenReturn(userResponse)
-                    )
-                    .doOnNext(user -> {
-                        logger.debug("User loaded from database and cached: {}", user.username());
-                        metricsService.recordCacheMiss("user:" + userId);
-                        metricsService.recordRedisOperation("SET", "user:" + userId);
-                    })
-            );
+                // If not in cache and not known to be missing, fetch from database
+                cacheService.isMissingUserId(userId)
+                    .flatMap(missing -> missing ? Mono.<UserResponse>empty() : loadUserById(userId))
+            )
+            // Deactivation writes the inactive profile through rather than evicting it
+            .filter(user -> !Boolean.FALSE.equals(user.enabled()))
+            // Feeds the hot set that the next instance warms its cache from
+            .doOnNext(user -> cacheService.recordProfileAccess(userId));
+    }
+    
+    private Mono<UserResponse> loadUserById(Long userId) {
+        // Read on the primary: the result is cached for every instance, and a lagging
+        // replica row would stay there for the whole profile TTL
+        return userRepository.findById(userId)
+            .filter(user -> user.isActive())
+            .flatMap(user -> {
+                // Cache the result, tagged with the row version it was read at
+                UserResponse userResponse = UserResponse.fromUser(user);
+                return cacheService.cacheUserProfile(userId, userResponse, user.version())
+                    .thenReturn(userResponse);
+            })
+            .doOnNext(user -> {
+                logger.debug("User loaded from database and cached: {}", user.username());
+                metricsService.recordCacheMiss("user:" + userId);
+                metricsService.recordRedisOperation("SET", "user:" + userId);
+            })
+            .switchIfEmpty(Mono.defer(() -> cacheService.cacheMissingUserId(userId)
+                .then(Mono.<UserResponse>empty())));
     }
     
     /**
@@ -120,9 +153,20 @@ public class UserService {
     public Mono<UserResponse> getUserByUsername(String username) {
         logger.debug("Fetching user by username: {}", username);
         
-        return userRepository.findByUsernameIgnoreCase(username)
-            .filter(user -> user.isActive())
-            .map(UserResponse::fromUser);
+        if (!existenceFilter.mightContainUsername(username)) {
+            logger.debug("Username rejected by existence filter: {}", username);
+            return Mono.empty();
+        }
+        
+        return cacheService.isMissingUsername(username)
+            .flatMap(missing -> missing ? Mono.<UserResponse>empty() : readRouting
+                .forUser(userRepository.findByUsernameIgnoreCase(username), User::id)
+                // A replica may lag behind a registration; confirm a miss on the primary before caching it
+                .switchIfEmpty(Mono.defer(() -> userRepository.findByUsernameIgnoreCase(username)))
+                .filter(user -> user.isActive())
+                .map(UserResponse::fromUser)
+                .switchIfEmpty(Mono.defer(() -> cacheService.cacheMissingUsername(username)
+                    .then(Mono.<UserResponse>empty()))));
     }
     
     /**
@@ -133,21 +177,30 @@ public class UserService {
         
         return userRepository.findById(userId)
             .filter(user -> user.isActive())
-            .map(user -> user.withUpdatedInfo(
-                request.firstName() != null ? request.firstName() : user.firstName(),
-                request.lastName() != null ? request.lastName() : user.lastName(),
-                request.email() != null ? request.email() : user.email()
-            ))
-            .flatMap(userRepository::save)
-            .flatMap(updatedUser -> {
+            .flatMap(user -> userRepository.save(user.withUpdatedInfo(
+                    request.firstName() != null ? request.firstName() : user.firstName(),
+                    request.lastName() != null ? request.lastName() : user.lastName(),
+                    request.email() != null ? request.email() : user.email()
+                ))
+                .map(updatedUser -> Tuples.of(user, updatedUser)))
+            .flatMap(users -> {
+                User previousUser = users.getT1();
+                User updatedUser = users.getT2();
                 UserResponse userResponse = UserResponse.fromUser(updatedUser);
                 
+                readRouting.recordWrite(userId);
+                if (!updatedUser.email().equalsIgnoreCase(previousUser.email())) {
+                    existenceFilter.add(userId, updatedUser.username(), updatedUser.email());
+                }
+
                 // Record metrics
                 metricsService.recordUserUpdate(updatedUser.username());
-                metricsService.recordRedisOperation("DEL", "user:" + userId);
+                metricsService.recordRedisOperation("HSET", "user:" + userId);
                 
-                // Invalidate cache
-                Mono<Boolean> cacheInvalidation = cacheService.invalidateUserCache(userId.toString());
+                // Write the changed fields through to the cached profile so reads stay warm
+                Mono<Boolean> cacheUpdate = cacheService.updateUserProfile(
+                    userId, UserResponse.fromUser(previousUser), previousUser.version(),
+                    userResponse, updatedUser.version());
                 
                 // Publish events
                 Mono<Void> eventPublishing = Mono.fromRunnable(() -> 
@@ -159,7 +212,7 @@ public class UserService {
                 ).doOnSuccess(result -> metricsService.recordKafkaEvent("notifications", "profile_update"))
                 .then();
                 
-                return Mono.when(cacheInvalidation, eventPublishing, kafkaEvent)
+                return Mono.when(cacheUpdate, eventPublishing, kafkaEvent)
                     .thenReturn(userResponse);
             })
             .doOnSuccess(user -> logger.info("User updated successfully: {}", user.username()))
@@ -177,7 +230,9 @@ public class UserService {
             .flatMap(user -> {
                 User deactivatedUser = user.withActiveStatus(false);
                 return userRepository.save(deactivatedUser)
-                    .doOnNext(savedUser -> publishUserDeactivatedEvent(savedUser, reason, generateCorrelationId()));
+                    .doOnNext(savedUser -> readRouting.recordWrite(userId))
+                    .doOnNext(savedUser -> publishUserDeactivatedEvent(savedUser, reason, generateCorrelationId()))
+                    .flatMap(savedUser -> writeThroughProfile(user, savedUser));
             })
             .then()
             .doOnSuccess(v -> logger.info("User deactivated successfully: {}", userId))
@@ -193,9 +248,10 @@ public class UserService {
         return userRepository.findById(userId)
             .filter(user -> user.isActive())
             .filter(user -> !user.emailVerified())
-            .map(user -> user.withEmailVerified(true))
-            .flatMap(userRepository::save)
-            .doOnNext(user -> publishUserEmailVerifiedEvent(user, generateCorrelationId()))
+            .flatMap(user -> userRepository.save(user.withEmailVerified(true))
+                .doOnNext(savedUser -> readRouting.recordWrite(userId))
+                .doOnNext(savedUser -> publishUserEmailVerifiedEvent(savedUser, generateCorrelationId()))
+                .flatMap(savedUser -> writeThroughProfile(user, savedUser).thenReturn(savedUser)))
             .map(UserResponse::fromUser)
             .doOnSuccess(user -> logger.info("Email verified successfully for user: {}", user.username()))
             .doOnError(error -> logger.error("Failed to verify email for user: {}", userId, error));
@@ -219,7 +275,7 @@ public class UserService {
             .cast(UserResponse.class)
             .switchIfEmpty(
                 // If not cached, search in database
-                userRepository.searchUsers(searchTerm, limit, offset)
+                readRouting.replica(userRepository.searchUsers(searchTerm, limit, offset))
                     .map(UserResponse::fromUser)
                     .collectList()
                     .flatMap(results -> {
@@ -242,7 +298,7 @@ public class UserService {
     public Flux<UserResponse> getAllActiveUsers() {
         logger.debug("Fetching all active users");
         
-        return userRepository.findAllActiveUsers()
+        return readRouting.replica(userRepository.findAllActiveUsers())
             .map(UserResponse::fromUser);
     }
     
@@ -253,9 +309,9 @@ public class UserService {
         logger.debug("Fetching user statistics");
         
         return Mono.zip(
-            userRepository.countActiveUsers(),
-            userRepository.countByEmailVerified(true),
-            userRepository.countByEmailVerified(false)
+            readRouting.replica(userRepository.countActiveUsers()),
+            readRouting.replica(userRepository.countByEmailVerified(true)),
+            readRouting.replica(userRepository.countByEmailVerified(false))
         ).map(tuple -> java.util.Map.of(
             "totalActiveUsers", tuple.getT1(),
             "emailVerified", tuple.getT2(),
@@ -265,10 +321,29 @@ public class UserService {
     
     // Helper methods
     
+    /**
+     * Patch the cached profile to the saved row version; the version guard keeps a
+     * concurrent reader from caching the row as it was before this write
+     */
+    private Mono<Boolean> writeThroughProfile(User previousUser, User savedUser) {
+        return cacheService.updateUserProfile(
+                savedUser.id(), UserResponse.fromUser(previousUser), previousUser.version(),
+                UserResponse.fromUser(savedUser), savedUser.version())
+            .onErrorResume(error -> {
+                logger.warn("Failed to write through cached profile for user: {}", savedUser.id(), error);
+                return cacheService.invalidateUserCache(savedUser.id().toString())
+                    .onErrorReturn(false);
+            });
+    }
+    
     private Mono<Void> validateUserDoesNotExist(String username, String email) {
+        // Only ask the database about values the existence filter cannot rule out;
+        // the unique constraints still guard the insert itself
         return Mono.zip(
-            userRepository.existsByUsernameIgnoreCase(username),
-            userRepository.existsByEmailIgnoreCase(email)
+            existenceFilter.mightContainUsername(username)
+                ? userRepository.existsByUsernameIgnoreCase(username) : Mono.just(false),
+            existenceFilter.mightContainEmail(email)
+                ? userRepository.existsByEmailIgnoreCase(email) : Mono.just(false)
         ).flatMap(tuple -> {
             if (tuple.getT1()) {
                 return Mono.error(new IllegalArgumentException("Username already exists"));
@@ -0,0 +1,122 @@
+package com.enterprise.portfolio.userservice.config;
+
+import com.enterprise.portfolio.userservice.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round trips and compatibility cases of the binary cache codec.
+ */
+class CompactCacheSerializerTests {
+
+    private final RedisSerializer<Object> fallback = new GenericJackson2JsonRedisSerializer();
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(fallback);
+
+    @Test
+    void userWithAllFieldsNullRoundTrips() {
+        UserResponse user = new UserResponse(null, null, null, null, null, null, null, null,
+            null, null, null, null, null);
+
+        byte[] bytes = serializer.serialize(user);
+
+        assertThat(bytes[0]).isEqualTo(CompactCacheSerializer.MAGIC);
+        assertThat(bytes[2]).isEqualTo(CompactCacheSerializer.TYPE_USER);
+        assertThat(serializer.deserialize(bytes)).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void userWithAllFieldsSetRoundTrips() {
+        UserResponse user = new UserResponse(-42L, "jürgen", "jürgen@example.com", "Jürgen", "Ødegård",
+            true, false, new String[]{"USER", "ADMIN"},
+            LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_789),
+            LocalDateTime.of(1969, 12, 31, 0, 0, 1),
+            LocalDateTime.of(2030, 1, 1, 12, 0),
+            87, "ACTIVE");
+
+        Object restored = serializer.deserialize(serializer.serialize(user));
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void listAboveThresholdIsCompressedAndRoundTrips() {
+        List<UserResponse> users = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            users.add(user(id));
+        }
+
+        byte[] bytes = serializer.serialize(users);
+
+        assertThat(bytes[2]).isEqualTo(CompactCacheSerializer.TYPE_USER_LIST);
+        assertThat(bytes[3] & CompactCacheSerializer.FLAG_LZ4).isEqualTo((int) CompactCacheSerializer.FLAG_LZ4);
+        assertThat(serializer.deserialize(bytes)).usingRecursiveComparison().isEqualTo(users);
+    }
+
+    @Test
+    void smallListIsNotCompressed() {
+        List<UserResponse> users = List.of(user(1L));
+
+        byte[] bytes = serializer.serialize(users);
+
+        assertThat(bytes.length).isLessThan(CompactCacheSerializer.COMPRESSION_THRESHOLD);
+        assertThat(bytes[3] & CompactCacheSerializer.FLAG_LZ4).isZero();
+        assertThat(serializer.deserialize(bytes)).usingRecursiveComparison().isEqualTo(users);
+    }
+
+    @Test
+    void legacyJsonPayloadIsReadByFallback() {
+        // Entries cached before the codec were plain JSON from the fallback serializer
+        UserResponse user = new UserResponse(7L, "legacy", "legacy@example.com", "Leg", "Acy", true, true,
+            null, null, null, null, 50, "ACTIVE");
+        byte[] legacy = fallback.serialize(user);
+
+        assertThat(legacy[0]).isEqualTo((byte) '{');
+        assertThat(serializer.deserialize(legacy)).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] bytes = serializer.serialize(user(1L));
+        bytes[1] = (byte) (CompactCacheSerializer.VERSION + 1);
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+            .isInstanceOf(SerializationException.class)
+            .hasMessageContaining("version");
+    }
+
+    @Test
+    void unknownTypeIsRejected() {
+        byte[] bytes = serializer.serialize(user(1L));
+        bytes[2] = 99;
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+            .isInstanceOf(SerializationException.class)
+            .hasMessageContaining("type");
+    }
+
+    @Test
+    void otherValuesGoThroughFallback() {
+        byte[] bytes = serializer.serialize("plain value");
+
+        assertThat(bytes[0]).isNotEqualTo(CompactCacheSerializer.MAGIC);
+        assertThat(serializer.deserialize(bytes)).isEqualTo("plain value");
+    }
+
+    private static UserResponse user(long id) {
+        return new UserResponse(id, "user" + id, "user" + id + "@example.com", "First" + id, "Last" + id,
+            id % 2 == 0, true, new String[]{"USER"},
+            LocalDateTime.of(2024, 1, 1, 8, 30).plusMinutes(id),
+            LocalDateTime.of(2023, 6, 1, 0, 0),
+            LocalDateTime.of(2024, 1, 1, 0, 0),
+            (int) (id % 100), "ACTIVE");
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.portfolio.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ordering, wrap-around and clearing of the recent activity log.
+ */
+class ActivityRingBufferTests {
+
+    private static final RealTimeMetricsService.ActivityType TYPE = RealTimeMetricsService.ActivityType.USER_LOGIN;
+
+    @Test
+    void snapshotIsNewestFirst() {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(8);
+        add(buffer, 0, 3);
+
+        assertThat(counts(buffer.snapshot(8))).containsExactly(2L, 1L, 0L);
+    }
+
+    @Test
+    void snapshotAfterWrapAroundKeepsOnlyTheNewestCapacityEntries() {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(4);
+        add(buffer, 0, 11);
+
+        assertThat(counts(buffer.snapshot(10))).containsExactly(10L, 9L, 8L, 7L);
+        assertThat(buffer.snapshot(10)).extracting(ActivityRingBuffer.Slot::sequence).containsExactly(10L, 9L, 8L, 7L);
+    }
+
+    @Test
+    void snapshotIsLimited() {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(8);
+        add(buffer, 0, 6);
+
+        assertThat(counts(buffer.snapshot(2))).containsExactly(5L, 4L);
+        assertThat(buffer.snapshot(0)).isEmpty();
+    }
+
+    @Test
+    void bufferFilledExactlyToCapacityKeepsEveryEntry() {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(4);
+        add(buffer, 0, 4);
+
+        assertThat(counts(buffer.snapshot(4))).containsExactly(3L, 2L, 1L, 0L);
+
+        add(buffer, 4, 1);
+
+        assertThat(counts(buffer.snapshot(4))).containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void clearHidesEarlierEntriesOnly() {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(4);
+        add(buffer, 0, 6);
+
+        buffer.clear();
+
+        assertThat(buffer.snapshot(4)).isEmpty();
+
+        add(buffer, 6, 2);
+
+        assertThat(counts(buffer.snapshot(4))).containsExactly(7L, 6L);
+    }
+
+    @Test
+    void emptyBufferHasEmptySnapshot() {
+        assertThat(new ActivityRingBuffer(4).snapshot(4)).isEmpty();
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThat(new ActivityRingBuffer(1).capacity()).isEqualTo(1);
+        assertThatThrownBy(() -> new ActivityRingBuffer(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ActivityRingBuffer(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Entries carry their insertion index as the count, so order is easy to assert
+    private static void add(ActivityRingBuffer buffer, long from, int entries) {
+        for (long i = from; i < from + entries; i++) {
+            buffer.add(1_000 + i, TYPE, "user" + i, "detail", i);
+        }
+    }
+
+    private static List<Long> counts(List<ActivityRingBuffer.Slot> slots) {
+        return slots.stream().map(ActivityRingBuffer.Slot::count).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.enterprise.portfolio.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Error rates of the existence filter's bit array.
+ */
+class UserExistenceFilterBitsTests {
+
+    private static final int KEYS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void everyAddedKeyIsFound() {
+        UserExistenceFilter.Bits bits = new UserExistenceFilter.Bits(KEYS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < KEYS; i++) {
+            bits.add(key(i));
+        }
+
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(bits.mightContain(key(i))).as(key(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearTarget() {
+        UserExistenceFilter.Bits bits = new UserExistenceFilter.Bits(KEYS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < KEYS; i++) {
+            bits.add(key(i));
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = KEYS; i < KEYS + probes; i++) {
+            if (bits.mightContain(key(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        UserExistenceFilter.Bits bits = new UserExistenceFilter.Bits(KEYS, FALSE_POSITIVE_RATE);
+
+        assertThat(bits.mightContain(key(0))).isFalse();
+        assertThat(bits.sizeInBytes()).isPositive();
+    }
+
+    // Same shape as the filter's own keys
+    private static String key(int i) {
+        return switch (i % 3) {
+            case 0 -> "i:" + i;
+            case 1 -> "u:user" + i;
+            default -> "e:user" + i + "@example.com";
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.enterprise.java.streaming;
+
+import com.enterprise.java.streaming.flink.FlinkStreamProcessor;
+import com.enterprise.java.streaming.ingestion.EventChannel;
+import com.enterprise.java.streaming.ingestion.SharedEventIngestion;
+import com.enterprise.java.streaming.lifecycle.ManagedComponent;
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import com.enterprise.java.streaming.server.ProductionMetricsServer;
+import com.enterprise.java.streaming.spark.SparkStreamAnalyzer;
+import com.enterprise.java.streaming.spark.StreamingSinkConfig;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * {@link ManagedComponent} adapters for the pipeline's engines and servers.
+ */
+final class EngineComponents {
+
+    private EngineComponents() {
+    }
+
+    static ManagedComponent metricsServer(StreamingMetricsCollector metricsCollector, int port) {
+        return new ManagedComponent() {
+            private final ProductionMetricsServer server = new ProductionMetricsServer(metricsCollector);
+            private final CountDownLatch stopped = new CountDownLatch(1);
+
+            @Override
+            public String name() {
+                return "metrics-server";
+            }
+
+            @Override
+            public void run() throws Exception {
+                server.start(port);
+                stopped.await();
+            }
+
+            @Override
+            public boolean isReady() {
+                return server.isRunning();
+            }
+
+            @Override
+            public void stop(Duration drainTimeout) {
+                server.stop((int) Math.min(drainTimeout.toSeconds(), 5));
+                stopped.countDown();
+            }
+        };
+    }
+
+    static ManagedComponent spark(EventChannel events, StreamingMetricsCollector metricsCollector) {
+        return new ManagedComponent() {
+            private volatile SparkStreamAnalyzer analyzer;
+
+            @Override
+            public String name() {
+                return "spark";
+            }
+
+            @Override
+            public void run() throws Exception {
+                // Session creation is part of the measured startup
+                analyzer = new SparkStreamAnalyzer(StreamingSinkConfig.defaults(), metricsCollector);
+                analyzer.startStreaming(events);
+            }
+
+            @Override
+            public boolean isReady() {
+                SparkStreamAnalyzer current = analyzer;
+                return current != null && current.isStreaming();
+            }
+
+            @Override
+            public void stop(Duration drainTimeout) throws Exception {
+                SparkStreamAnalyzer current = analyzer;
+                if (current != null) {
+                    current.drainAndStop(drainTimeout);
+                }
+            }
+        };
+    }
+
+    static ManagedComponent flink(EventChannel events, StreamingMetricsCollector metricsCollector) {
+        return new ManagedComponent() {
+            private final FlinkStreamProcessor processor = new FlinkStreamProcessor(metricsCollector);
+
+            @Override
+            public String name() {
+                return "flink";
+            }
+
+            @Override
+            public void run() throws Exception {
+                processor.startProcessing(events);
+            }
+
+            @Override
+            public boolean isReady() {
+                return processor.isRunning();
+            }
+
+            @Override
+            public void stop(Duration drainTimeout) {
+                processor.stop(drainTimeout);
+            }
+        };
+    }
+
+    static ManagedComponent dashboard() {
+        return new ManagedComponent() {
+            private final AnalyticsDashboard dashboard = new AnalyticsDashboard();
+            private final CountDownLatch stopped = new CountDownLatch(1);
+            private volatile boolean running;
+
+            @Override
+            public String name() {
+                return "dashboard";
+            }
+
+            @Override
+            public void run() throws Exception {
+                dashboard.startDashboard();
+                running = true;
+                stopped.await();
+            }
+
+            @Override
+            public boolean isReady() {
+                return running;
+            }
+
+            @Override
+            public void stop(Duration drainTimeout) {
+                running = false;
+                dashboard.stop();
+                stopped.countDown();
+            }
+        };
+    }
+
+    static ManagedComponent ingestion(SharedEventIngestion ingestion) {
+        return new ManagedComponent() {
+            @Override
+            public String name() {
+                return "ingestion";
+            }
+
+            @Override
+            public void run() throws Exception {
+                ingestion.start();
+                ingestion.awaitTermination();
+            }
+
+            @Override
+            public boolean isReady() {
+                return ingestion.isRunning();
+            }
+
+            @Override
+            public void stop(Duration drainTimeout) {
+                ingestion.close();
+            }
+
+            @Override
+            public long firstEventNanos() {
+                return ingestion.getFirstEventNanos();
+            }
+        };
+    }
+}
@@ -1,12 +1,15 @@
 package com.enterprise.java.streaming;
 
-import com.enterprise.java.streaming.flink.FlinkStreamProcessor;
-import com.enterprise.java.streaming.spark.SparkStreamAnalyzer;
+import com.enterprise.java.streaming.ingestion.EventChannel;
+import com.enterprise.java.streaming.ingestion.SharedEventIngestion;
+import com.enterprise.java.streaming.lifecycle.ApplicationLifecycle;
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
 
 /**
  * Main application class for the Streaming Analytics Pipeline.
@@ -16,82 +19,104 @@ import java.util.concurrent.Executors;
  * - Apache Flink streaming for real-time complex event processing
  * - Integration with Kafka streams from Project 1 (User Service)
  * - Real-time analytics dashboard
+ * - Prometheus metrics endpoint
  * 
  * Architecture:
  * 1. Consumes events from Project 1's Kafka topics (user-events, notifications)
  * 2. Uses Flink for real-time stream processing and alerting
  * 3. Uses Spark for ML model training and batch analytics
  * 4. Stores insights in PostgreSQL for dashboard consumption
+ * 
+ * The user-events topic is consumed and decoded once by {@link SharedEventIngestion}
+ * and fanned out to the selected engines. The first argument optionally limits the
+ * engines to a comma-separated subset, e.g. {@code spark} or {@code spark,flink}; see
+ * {@link #USAGE} for the delivery guarantees this gives.
+ * 
+ * Components run under an {@link ApplicationLifecycle}: started in dependency order on
+ * virtual threads, health-checked, and drained in reverse order on shutdown or when
+ * any of them fails.
  */
 public class StreamingAnalyticsApplication {
     
     private static final Logger logger = LoggerFactory.getLogger(StreamingAnalyticsApplication.class);
     
+    private static final int ENGINE_QUEUE_CAPACITY = 10_000;
+    private static final int METRICS_PORT = 9464;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration HEALTH_CHECK_INTERVAL = Duration.ofSeconds(10);
+    
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: streaming-analytics [engines]",
+            "",
+            "  engines   comma-separated subset of spark,flink (default: spark,flink)",
+            "",
+            "The user-events topic is consumed and decoded once and shared by the selected",
+            "engines. Delivery is at-least-once: Kafka offsets are committed only after every",
+            "engine has processed the events (Spark once its queries commit the batch, Flink",
+            "once a checkpoint completes). After a crash or restart the uncommitted events are",
+            "consumed again, so engines and the event lake may see some events twice.",
+            "Spark queries keep their state in checkpoints suffixed '-shared', separate from",
+            "the checkpoints of queries that read Kafka directly.");
+    
     public static void main(String[] args) {
         logger.info("🚀 Starting Enterprise Streaming Analytics Pipeline");
         logger.info("📊 Integrating Apache Spark & Flink for real-time insights");
         
+        if (args.length > 0 && (args[0].equals("-h") || args[0].equals("--help"))) {
+            System.out.println(USAGE);
+            return;
+        }
+        
+        ApplicationLifecycle lifecycle = null;
         try {
-            // Create executor service for parallel processing
-            ExecutorService executor = Executors.newFixedThreadPool(3);
+            Set<String> engines = Set.copyOf(Arrays.asList(
+                    (args.length > 0 ? args[0] : "spark,flink").toLowerCase().split("\\s*,\\s*")));
             
-            // Initialize and start Spark streaming application
-            SparkStreamAnalyzer sparkAnalyzer = new SparkStreamAnalyzer();
-            executor.submit(() -> {
-                try {
-                    logger.info("🔥 Starting Apache Spark streaming analytics...");
-                    sparkAnalyzer.startStreaming();
-                } catch (Exception e) {
-                    logger.error("❌ Error in Spark streaming application", e);
-                }
-            });
+            // Consume and decode user events once for every selected engine
+            SharedEventIngestion ingestion = new SharedEventIngestion();
+            EventChannel sparkEvents = engines.contains("spark") ? ingestion.subscribe("spark", ENGINE_QUEUE_CAPACITY) : null;
+            EventChannel flinkEvents = engines.contains("flink") ? ingestion.subscribe("flink", ENGINE_QUEUE_CAPACITY) : null;
+            if (sparkEvents == null && flinkEvents == null) {
+                System.err.println(USAGE);
+                throw new IllegalArgumentException("No known engine selected in: " + engines);
+            }
             
-            // Initialize and start Flink streaming application
-            FlinkStreamProcessor flinkProcessor = new FlinkStreamProcessor();
-            executor.submit(() -> {
-                try {
-                    logger.info("⚡ Starting Apache Flink stream processing...");
-                    flinkProcessor.startProcessing();
-                } catch (Exception e) {
-                    logger.error("❌ Error in Flink streaming application", e);
-                }
-            });
+            // Components start in dependency order and drain in reverse: metrics first so
+            // startup is observable, ingestion after the engines so no event arrives early
+            StreamingMetricsCollector metricsCollector = new StreamingMetricsCollector();
+            lifecycle = new ApplicationLifecycle(STARTUP_TIMEOUT, DRAIN_TIMEOUT, HEALTH_CHECK_INTERVAL, metricsCollector)
+                    .register(EngineComponents.metricsServer(metricsCollector, METRICS_PORT));
+            if (sparkEvents != null) {
+                lifecycle.register(EngineComponents.spark(sparkEvents, metricsCollector));
+            }
+            if (flinkEvents != null) {
+                lifecycle.register(EngineComponents.flink(flinkEvents, metricsCollector));
+            }
+            lifecycle.register(EngineComponents.ingestion(ingestion))
+                    .register(EngineComponents.dashboard());
             
-            // Start monitoring dashboard
-            executor.submit(() -> {
-                try {
-                    logger.info("📈 Starting Analytics Dashboard...");
-                    AnalyticsDashboard dashboard = new AnalyticsDashboard();
-                    dashboard.startDashboard();
-                } catch (Exception e) {
-                    logger.error("❌ Error in Analytics Dashboard", e);
-                }
-            });
+            // Drain before the JVM exits; the hook blocks until shutdown has finished
+            Runtime.getRuntime().addShutdownHook(new Thread(lifecycle::shutdown, "lifecycle-shutdown"));
             
-            // Add shutdown hook for graceful cleanup
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                logger.info("🛑 Shutting down Streaming Analytics Pipeline...");
-                try {
-                    sparkAnalyzer.stop();
-                    flinkProcessor.stop();
-                    executor.shutdown();
-                    logger.info("✅ Graceful shutdown completed");
-                } catch (Exception e) {
-                    logger.error("❌ Error during shutdown", e);
-                }
-            }));
+            lifecycle.start();
             
             logger.info("✅ Enterprise Streaming Analytics Pipeline started successfully");
             logger.info("🌐 Dashboard available at: http://localhost:8082");
+            logger.info("📊 Prometheus metrics available at: http://localhost:{}/metrics", METRICS_PORT);
             logger.info("📊 Spark UI available at: http://localhost:4040");
             logger.info("⚡ Flink UI available at: http://localhost:8081");
             
-            // Keep main thread alive
-            Thread.currentThread().join();
+            // Returns once the pipeline has shut down, on request or after a component failure
+            lifecycle.awaitTermination();
             
         } catch (Exception e) {
             logger.error("❌ Failed to start Streaming Analytics Pipeline", e);
             System.exit(1);
         }
+        
+        if (lifecycle.getFailure() != null) {
+            System.exit(1);
+        }
     }
-}
\ No newline at end of file
+}
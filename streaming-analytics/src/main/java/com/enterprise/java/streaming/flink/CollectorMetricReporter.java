@@ -0,0 +1,166 @@
+package com.enterprise.java.streaming.flink;
+
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.MetricConfig;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.reporter.MetricReporter;
+import org.apache.flink.metrics.reporter.MetricReporterFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flink metric reporter that bridges the pipeline's operator metrics into the
+ * {@link StreamingMetricsCollector} registry.
+ *
+ * Operators update plain per-subtask Flink counters and histograms, so the event path
+ * stays uncontended; Micrometer reads them only when Prometheus scrapes. Only the
+ * metric names declared here are bridged, tagged with operator and subtask index.
+ * Alert counters additionally feed the collector's overall alert totals.
+ *
+ * Flink instantiates reporters itself, so the collector is handed over through
+ * {@link #configure(Configuration, StreamingMetricsCollector)}. This only works when
+ * the job runs in the same JVM (the local environment).
+ */
+public class CollectorMetricReporter implements MetricReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectorMetricReporter.class);
+
+    // Metric names registered by the pipeline's operators
+    static final String EVENTS_PARSED = "eventsParsed";
+    static final String PARSE_ERRORS = "parseErrors";
+    static final String ALERTS = "alerts";
+    static final String ALERT_TYPE_GROUP = "alert_type";
+    static final String OPERATOR_LATENCY = "operatorLatencyNanos";
+    static final String WINDOW_FIRING_LAG = "windowFiringLagMs";
+    static final String END_TO_END_LATENCY = "endToEndLatencyMs";
+    static final String STAGE_GROUP = "stage";
+
+    static final int HISTOGRAM_WINDOW_SIZE = 1024;
+
+    private static final String REPORTER_NAME = "collector";
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final double[] END_TO_END_QUANTILES = {0.5, 0.9, 0.99, 0.999, 1.0};
+
+    private static volatile StreamingMetricsCollector collector;
+
+    private final Map<Metric, List<Meter>> bridged = new ConcurrentHashMap<>();
+    private StreamingMetricsCollector metricsCollector;
+    private MeterRegistry registry;
+
+    /**
+     * Enables the reporter in a Flink configuration, reporting into the given collector.
+     */
+    public static void configure(Configuration configuration, StreamingMetricsCollector metricsCollector) {
+        collector = metricsCollector;
+        configuration.setString("metrics.reporter." + REPORTER_NAME + ".factory.class", Factory.class.getName());
+    }
+
+    @Override
+    public void open(MetricConfig config) {
+        StreamingMetricsCollector current = collector;
+        if (current == null) {
+            throw new IllegalStateException("CollectorMetricReporter used without configure()");
+        }
+        metricsCollector = current;
+        registry = current.getMeterRegistry();
+        logger.info("📈 Bridging Flink operator metrics into the Prometheus registry");
+    }
+
+    @Override
+    public void close() {
+        bridged.keySet().forEach(metricsCollector::unbindAlertCounter);
+        bridged.values().forEach(meters -> meters.forEach(registry::remove));
+        bridged.clear();
+    }
+
+    @Override
+    public void notifyOfAddedMetric(Metric metric, String metricName, MetricGroup group) {
+        Map<String, String> variables = group.getAllVariables();
+        Tags tags = Tags.of(
+                "engine", "flink",
+                "operator", variables.getOrDefault("<operator_name>", variables.getOrDefault("<task_name>", "unknown")),
+                "subtask", variables.getOrDefault("<subtask_index>", "0"));
+
+        List<Meter> meters = new ArrayList<>();
+        switch (metricName) {
+            case EVENTS_PARSED -> meters.add(FunctionCounter
+                    .builder("streaming_events_parsed_total", (Counter) metric, Counter::getCount)
+                    .description("Events parsed and handed to the pipeline")
+                    .tags(tags)
+                    .register(registry));
+            case PARSE_ERRORS -> meters.add(FunctionCounter
+                    .builder("streaming_event_parse_errors_total", (Counter) metric, Counter::getCount)
+                    .description("Events that could not be parsed")
+                    .tags(tags)
+                    .register(registry));
+            case ALERTS -> {
+                Counter alerts = (Counter) metric;
+                String alertType = variables.getOrDefault("<" + ALERT_TYPE_GROUP + ">", "unknown");
+                meters.add(FunctionCounter
+                        .builder("streaming_alerts_by_type_total", alerts, Counter::getCount)
+                        .description("Alerts emitted, by alert type")
+                        .tags(tags.and("alert_type", alertType))
+                        .register(registry));
+                metricsCollector.bindAlertCounter(metric, alertType, alerts::getCount);
+            }
+            case OPERATOR_LATENCY -> bridgeQuantiles(meters, "streaming_operator_latency_seconds",
+                    "Per-event processing time by operator", (Histogram) metric, QUANTILES, 1e-9, tags);
+            case WINDOW_FIRING_LAG -> bridgeQuantiles(meters, "streaming_window_firing_lag_seconds",
+                    "Processing time between a window's end and its result", (Histogram) metric, QUANTILES, 1e-3, tags);
+            case END_TO_END_LATENCY -> bridgeQuantiles(meters, "streaming_end_to_end_latency_seconds",
+                    "Time from publish in the User Service until an event passed each pipeline stage",
+                    (Histogram) metric, END_TO_END_QUANTILES, 1e-3,
+                    tags.and("stage", variables.getOrDefault("<" + STAGE_GROUP + ">", "unknown")));
+            default -> {
+                // Flink's built-in metrics stay in Flink's own reporters and web UI
+                return;
+            }
+        }
+        bridged.put(metric, meters);
+    }
+
+    private void bridgeQuantiles(List<Meter> meters, String name, String description, Histogram histogram,
+                                 double[] quantiles, double toSeconds, Tags tags) {
+        for (double quantile : quantiles) {
+            meters.add(Gauge.builder(name, histogram, h -> h.getStatistics().getQuantile(quantile) * toSeconds)
+                    .description(description)
+                    .tags(tags.and("quantile", String.valueOf(quantile)))
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public void notifyOfRemovedMetric(Metric metric, String metricName, MetricGroup group) {
+        // Subtasks re-register on restart; drop the meters bound to the old instance
+        metricsCollector.unbindAlertCounter(metric);
+        List<Meter> meters = bridged.remove(metric);
+        if (meters != null) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    /**
+     * Discovered through {@code META-INF/services}.
+     */
+    public static class Factory implements MetricReporterFactory {
+        @Override
+        public MetricReporter createMetricReporter(Properties properties) {
+            return new CollectorMetricReporter();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.enterprise.java.streaming.flink;
+
+import com.enterprise.java.streaming.ingestion.EventChannel;
+import com.enterprise.java.streaming.model.UserEvent;
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
+import org.apache.flink.streaming.api.functions.source.RichSourceFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-parallel Flink source that emits events from a shared in-process {@link EventChannel}.
+ *
+ * The channel is looked up by name when the task runs, so this only works when the
+ * job executes in the same JVM as the shared ingestion (the local environment).
+ * Emitting blocks while downstream operators are backpressured, which stops the
+ * channel from draining and in turn pauses the shared Kafka consumer.
+ *
+ * Events are acknowledged to the channel once a checkpoint containing them completes,
+ * which lets the shared ingestion commit their Kafka offsets.
+ */
+public class EventChannelSource extends RichSourceFunction<UserEvent> implements CheckpointedFunction, CheckpointListener {
+
+    private static final int MAX_EVENTS_PER_EMIT = 256;
+
+    private final String channelName;
+    private volatile boolean running = true;
+    // Channel position of the last emitted event; guarded by the checkpoint lock
+    private transient long emittedPosition;
+    // Channel position at each pending checkpoint, by checkpoint id
+    private transient NavigableMap<Long, Long> pendingCheckpoints;
+    private transient Counter eventsParsed;
+    private transient HdrLatencyHistogram ingestLatency;
+    private transient HdrLatencyHistogram parseLatency;
+
+    public EventChannelSource(String channelName) {
+        this.channelName = channelName;
+    }
+
+    @Override
+    public void initializeState(FunctionInitializationContext context) {
+        pendingCheckpoints = new ConcurrentSkipListMap<>();
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        // Events arrive already decoded; counted here so both source paths report alike
+        eventsParsed = getRuntimeContext().getMetricGroup().counter(CollectorMetricReporter.EVENTS_PARSED);
+        // Ingest is measured on arrival here; parse at decode time in the shared ingestion,
+        // which happens before the event waits in the channel
+        ingestLatency = HdrLatencyHistogram.register(getRuntimeContext().getMetricGroup(), "ingest");
+        parseLatency = HdrLatencyHistogram.register(getRuntimeContext().getMetricGroup(), "parse");
+    }
+
+    @Override
+    public void run(SourceContext<UserEvent> ctx) throws Exception {
+        EventChannel channel = EventChannel.lookup(channelName);
+        List<UserEvent> batch = new ArrayList<>(MAX_EVENTS_PER_EMIT);
+        synchronized (ctx.getCheckpointLock()) {
+            // The channel cannot replay what a failed attempt of this task had taken, so
+            // after an in-job failover those events are skipped rather than stalling commits
+            emittedPosition = channel.getTaken();
+        }
+
+        while (running) {
+            if (channel.drainTo(batch, MAX_EVENTS_PER_EMIT) == 0) {
+                UserEvent event = channel.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+            }
+            synchronized (ctx.getCheckpointLock()) {
+                for (UserEvent event : batch) {
+                    ctx.collect(event);
+                    ingestLatency.recordSince(event.getPublishedAtMillis());
+                    parseLatency.recordBetween(event.getPublishedAtMillis(), event.getDecodedAtMillis());
+                }
+                emittedPosition += batch.size();
+            }
+            eventsParsed.inc(batch.size());
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void snapshotState(FunctionSnapshotContext context) {
+        // Runs under the checkpoint lock, so the position matches the events in this checkpoint
+        pendingCheckpoints.put(context.getCheckpointId(), emittedPosition);
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {
+        NavigableMap<Long, Long> completed = pendingCheckpoints.headMap(checkpointId, true);
+        if (!completed.isEmpty()) {
+            long position = completed.lastEntry().getValue();
+            completed.clear();
+            EventChannel.lookup(channelName).acknowledge(position);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        running = false;
+    }
+}
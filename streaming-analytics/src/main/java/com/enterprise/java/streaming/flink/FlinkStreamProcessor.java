@@ -1,24 +1,28 @@
 package com.enterprise.java.streaming.flink;
 
+import com.enterprise.java.streaming.ingestion.EventChannel;
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
 import com.enterprise.java.streaming.model.UserEvent;
 import com.enterprise.java.streaming.model.AlertEvent;
 import com.enterprise.java.streaming.util.KafkaEventDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+import org.apache.flink.api.common.JobStatus;
 import org.apache.flink.api.common.functions.FilterFunction;
-import org.apache.flink.api.common.functions.MapFunction;
-import org.apache.flink.api.common.serialization.SimpleStringSchema;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.cep.CEP;
-import org.apache.flink.cep.PatternSelectFunction;
+import org.apache.flink.cep.RichPatternSelectFunction;
 import org.apache.flink.cep.PatternStream;
 import org.apache.flink.cep.pattern.Pattern;
 import org.apache.flink.cep.pattern.conditions.SimpleCondition;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.execution.JobClient;
+import org.apache.flink.core.execution.SavepointFormatType;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 import org.apache.flink.connector.kafka.sink.KafkaSink;
 import org.apache.flink.connector.kafka.sink.KafkaRecordSerializationSchema;
 import org.apache.flink.connector.kafka.source.KafkaSource;
@@ -27,7 +31,9 @@ import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
 import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +42,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Apache Flink Stream Processing application for real-time event processing.
@@ -46,14 +53,23 @@ import java.util.Map;
  * - User behavior analysis and alerting
  * - Integration with Kafka for event consumption and production
  * - Stateful stream processing with checkpointing
+ * 
+ * Operators keep per-subtask Flink counters and histograms (events parsed, per-operator
+ * latency, alerts by type, window firing lag) that {@link CollectorMetricReporter}
+ * exposes through the {@link StreamingMetricsCollector}.
+ * 
+ * End-to-end latency is measured from the publish time the User Service stamps on each
+ * record: {@link HdrLatencyHistogram}s record the time since publish as an event is
+ * ingested and parsed, and as a suspicious-login alert leaves CEP and is serialized
+ * for the security-alerts sink.
  */
 public class FlinkStreamProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(FlinkStreamProcessor.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule());
     
+    private final StreamingMetricsCollector metricsCollector;
     private StreamExecutionEnvironment env;
+    private volatile JobClient jobClient;
     
     // Kafka configuration
     private static final String KAFKA_BOOTSTRAP_SERVERS = "localhost:9092";
@@ -61,14 +77,29 @@ public class FlinkStreamProcessor {
     private static final String ALERTS_TOPIC = "security-alerts";
     private static final String ANALYTICS_TOPIC = "real-time-analytics";
     
+    private static final String SAVEPOINT_DIRECTORY = "/tmp/flink-savepoints";
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    
     public FlinkStreamProcessor() {
+        this(null);
+    }
+    
+    /**
+     * @param metricsCollector receives the operator metrics, or null to leave them in Flink only
+     */
+    public FlinkStreamProcessor(StreamingMetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
         initializeFlinkEnvironment();
     }
     
     private void initializeFlinkEnvironment() {
         logger.info("⚡ Initializing Apache Flink streaming environment");
         
-        env = StreamExecutionEnvironment.getExecutionEnvironment();
+        Configuration configuration = new Configuration();
+        if (metricsCollector != null) {
+            CollectorMetricReporter.configure(configuration, metricsCollector);
+        }
+        env = StreamExecutionEnvironment.getExecutionEnvironment(configuration);
         
         // Configure checkpointing for fault tolerance
         env.enableCheckpointing(30000); // Checkpoint every 30 seconds
@@ -85,21 +116,38 @@ public class FlinkStreamProcessor {
         logger.info("🚀 Starting Flink stream processing pipeline");
         
         // Create Kafka source for user events
-        KafkaSource<String> kafkaSource = KafkaSource.<String>builder()
+        KafkaSource<Tuple2<String, Long>> kafkaSource = KafkaSource.<Tuple2<String, Long>>builder()
                 .setBootstrapServers(KAFKA_BOOTSTRAP_SERVERS)
                 .setTopics(USER_EVENTS_TOPIC)
                 .setGroupId("flink-stream-processor")
                 .setStartingOffsets(OffsetsInitializer.latest())
-                .setValueOnlyDeserializer(new SimpleStringSchema())
+                .setDeserializer(new PublishedRecordDeserializationSchema())
                 .build();
         
         // Read from Kafka and parse events
         DataStream<UserEvent> userEventStream = env
-                .fromSource(kafkaSource, WatermarkStrategy.<String>forBoundedOutOfOrderness(Duration.ofSeconds(20))
+                .fromSource(kafkaSource, WatermarkStrategy.<Tuple2<String, Long>>forBoundedOutOfOrderness(Duration.ofSeconds(20))
                         .withTimestampAssigner((event, timestamp) -> System.currentTimeMillis()), "Kafka Source")
                 .map(new UserEventParser())
                 .name("Parse User Events");
         
+        runPipeline(userEventStream);
+    }
+    
+    /**
+     * Runs the same pipeline on events already decoded by the shared ingestion layer
+     * instead of consuming and parsing the Kafka topic again.
+     */
+    public void startProcessing(EventChannel sharedEvents) throws Exception {
+        logger.info("🚀 Starting Flink stream processing pipeline from shared channel '{}'", sharedEvents.getName());
+        
+        DataStream<UserEvent> userEventStream = env
+                .addSource(new EventChannelSource(sharedEvents.getName()), "Shared Ingestion Source");
+        
+        runPipeline(userEventStream);
+    }
+    
+    private void runPipeline(DataStream<UserEvent> userEventStream) throws Exception {
         // Apply watermark strategy for event time processing
         DataStream<UserEvent> watermarkedStream = userEventStream
                 .assignTimestampsAndWatermarks(
@@ -116,9 +164,10 @@ public class FlinkStreamProcessor {
         // Security monitoring
         detectSuspiciousActivity(watermarkedStream);
         
-        // Execute the streaming job
+        // Execute the streaming job; blocks until it finishes, fails or is stopped
         logger.info("🏃 Executing Flink streaming job...");
-        env.execute("Enterprise-Flink-Stream-Processor");
+        jobClient = env.executeAsync("Enterprise-Flink-Stream-Processor");
+        jobClient.getJobExecutionResult().get();
     }
     
     private void processComplexEventPatterns(DataStream<UserEvent> eventStream) {
@@ -140,21 +189,38 @@ public class FlinkStreamProcessor {
                 suspiciousLoginPattern
         );
         
-        DataStream<AlertEvent> alertStream = patternStream.select(new PatternSelectFunction<UserEvent, AlertEvent>() {
+        DataStream<AlertEvent> alertStream = patternStream.select(new RichPatternSelectFunction<UserEvent, AlertEvent>() {
+            private transient Counter alerts;
+            private transient HdrLatencyHistogram cepLatency;
+            
+            @Override
+            public void open(Configuration parameters) {
+                alerts = getRuntimeContext().getMetricGroup()
+                        .addGroup(CollectorMetricReporter.ALERT_TYPE_GROUP, StreamingMetricsCollector.SUSPICIOUS_LOGIN_ALERT)
+                        .counter(CollectorMetricReporter.ALERTS);
+                cepLatency = HdrLatencyHistogram.register(getRuntimeContext().getMetricGroup(), "cep");
+            }
+            
             @Override
             public AlertEvent select(Map<String, List<UserEvent>> pattern) throws Exception {
                 List<UserEvent> events = pattern.get("start");
                 UserEvent firstEvent = events.get(0);
+                // The last failed login completed the match, so latency is measured from its publish
+                Long triggerPublishedAt = events.get(events.size() - 1).getPublishedAtMillis();
+                alerts.inc();
+                cepLatency.recordSince(triggerPublishedAt);
                 
-                return AlertEvent.builder()
+                AlertEvent alert = AlertEvent.builder()
                         .alertId(java.util.UUID.randomUUID().toString())
                         .userId(firstEvent.getUserId())
-                        .alertType("SUSPICIOUS_LOGIN_PATTERN")
+                        .alertType(StreamingMetricsCollector.SUSPICIOUS_LOGIN_ALERT)
                         .description("Multiple failed login attempts detected")
                         .timestamp(LocalDateTime.now())
                         .severity("HIGH")
                         .eventCount(events.size())
                         .build();
+                alert.setSourcePublishedAtMillis(triggerPublishedAt);
+                return alert;
             }
         });
         
@@ -179,7 +245,7 @@ public class FlinkStreamProcessor {
         DataStream<Tuple2<String, UserActivitySummary>> activityAnalysis = eventStream
                 .keyBy(UserEvent::getUserId)
                 .window(TumblingEventTimeWindows.of(Time.minutes(5)))
-                .aggregate(new UserActivityAggregator())
+                .aggregate(new UserActivityAggregator(), new WindowFiringLagRecorder())
                 .name("User Activity Analysis");
         
         // Send analytics results to Kafka
@@ -228,27 +294,71 @@ public class FlinkStreamProcessor {
         logger.info("✅ Suspicious activity detection configured");
     }
     
+    /**
+     * Whether the job has been submitted and is running.
+     */
+    public boolean isRunning() {
+        JobClient client = jobClient;
+        if (client == null) {
+            return false;
+        }
+        try {
+            return client.getJobStatus().get(5, TimeUnit.SECONDS) == JobStatus.RUNNING;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
     public void stop() {
+        stop(DEFAULT_DRAIN_TIMEOUT);
+    }
+    
+    /**
+     * Stops the job with a savepoint so operator state is persisted consistently,
+     * falling back to cancelling it if the savepoint does not complete in time.
+     */
+    public void stop(Duration timeout) {
         logger.info("🛑 Stopping Flink stream processor");
-        // Graceful shutdown would be handled by the Flink runtime
-        logger.info("✅ Flink stream processor stopped");
+        JobClient client = jobClient;
+        if (client == null) {
+            logger.info("✅ Flink stream processor stopped (no job running)");
+            return;
+        }
+        try {
+            String savepoint = client
+                    .stopWithSavepoint(false, SAVEPOINT_DIRECTORY, SavepointFormatType.CANONICAL)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            logger.info("✅ Flink stream processor stopped with savepoint {}", savepoint);
+        } catch (Exception e) {
+            logger.warn("⚠️ Stop-with-savepoint failed, cancelling Flink job", e);
+            try {
+                client.cancel().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception ce) {
+                logger.error("❌ Failed to cancel Flink job", ce);
+            }
+        }
     }
     
     /**
-     * Custom function to parse JSON user events
+     * Passes window results through, recording how long after the window's end
+     * (in processing time) each result fires.
      */
-    private static class UserEventParser implements MapFunction<String, UserEvent> {
+    private static class WindowFiringLagRecorder extends ProcessWindowFunction<Tuple2<String, UserActivitySummary>,
+            Tuple2<String, UserActivitySummary>, String, TimeWindow> {
+        private transient Histogram firingLag;
+        
         @Override
-        public UserEvent map(String value) throws Exception {
-            try {
-                return objectMapper.readValue(value, UserEvent.class);
-            } catch (Exception e) {
-                // Return a default event for parsing errors
-                return UserEvent.builder()
-                        .userId("unknown")
-                        .eventType("PARSE_ERROR")
-                        .timestamp(LocalDateTime.now())
-                        .build();
+        public void open(Configuration parameters) {
+            firingLag = getRuntimeContext().getMetricGroup().histogram(CollectorMetricReporter.WINDOW_FIRING_LAG,
+                    new DescriptiveStatisticsHistogram(CollectorMetricReporter.HISTOGRAM_WINDOW_SIZE));
+        }
+        
+        @Override
+        public void process(String userId, Context context, Iterable<Tuple2<String, UserActivitySummary>> results,
+                            Collector<Tuple2<String, UserActivitySummary>> out) {
+            firingLag.update(context.currentProcessingTime() - context.window().maxTimestamp());
+            for (Tuple2<String, UserActivitySummary> result : results) {
+                out.collect(result);
             }
         }
     }
@@ -260,9 +370,16 @@ public class FlinkStreamProcessor {
         
         private ValueState<Integer> eventCountState;
         private ValueState<LocalDateTime> lastEventTimeState;
+        private transient Counter rapidActivityAlerts;
+        private transient Histogram latency;
         
         @Override
         public void open(Configuration parameters) throws Exception {
+            rapidActivityAlerts = getRuntimeContext().getMetricGroup()
+                    .addGroup(CollectorMetricReporter.ALERT_TYPE_GROUP, "RAPID_ACTIVITY")
+                    .counter(CollectorMetricReporter.ALERTS);
+            latency = getRuntimeContext().getMetricGroup().histogram(CollectorMetricReporter.OPERATOR_LATENCY,
+                    new DescriptiveStatisticsHistogram(CollectorMetricReporter.HISTOGRAM_WINDOW_SIZE));
             eventCountState = getRuntimeContext().getState(
                     new ValueStateDescriptor<>("eventCount", Integer.class));
             lastEventTimeState = getRuntimeContext().getState(
@@ -271,6 +388,7 @@ public class FlinkStreamProcessor {
         
         @Override
         public void processElement(UserEvent event, Context context, Collector<AlertEvent> collector) throws Exception {
+            long start = System.nanoTime();
             Integer currentCount = eventCountState.value();
             LocalDateTime lastEventTime = lastEventTimeState.value();
             
@@ -297,6 +415,7 @@ public class FlinkStreamProcessor {
                             .build();
                     
                     collector.collect(alert);
+                    rapidActivityAlerts.inc();
                     
                     // Reset counter after alert
                     eventCountState.update(0);
@@ -306,6 +425,7 @@ public class FlinkStreamProcessor {
             // Set timer to reset state after 5 minutes of inactivity
             context.timerService().registerEventTimeTimer(
                     context.timestamp() + Duration.ofMinutes(5).toMillis());
+            latency.update(System.nanoTime() - start);
         }
         
         @Override
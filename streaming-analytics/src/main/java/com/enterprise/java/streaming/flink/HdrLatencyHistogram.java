@@ -0,0 +1,134 @@
+package com.enterprise.java.streaming.flink;
+
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.SingleWriterRecorder;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.HistogramStatistics;
+import org.apache.flink.metrics.MetricGroup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Flink histogram of end-to-end latencies (milliseconds since the event was published),
+ * backed by an HdrHistogram so high percentiles stay accurate without sampling.
+ *
+ * Updated by the owning subtask only; recording is wait-free. Statistics describe the
+ * last completed interval of {@link #INTERVAL_NANOS}, rotated lazily when read.
+ */
+public class HdrLatencyHistogram implements Histogram {
+
+    private static final long HIGHEST_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final SingleWriterRecorder recorder = new SingleWriterRecorder(1, HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+
+    // Guarded by this; a rotated interval is never modified again
+    private org.HdrHistogram.Histogram lastInterval = recorder.getIntervalHistogram();
+    private long rotatedCount;
+    private long lastRotationNanos = System.nanoTime();
+
+    /**
+     * Registers a histogram for one pipeline stage on the given operator's metric group.
+     */
+    public static HdrLatencyHistogram register(MetricGroup group, String stage) {
+        return group.addGroup(CollectorMetricReporter.STAGE_GROUP, stage)
+                .histogram(CollectorMetricReporter.END_TO_END_LATENCY, new HdrLatencyHistogram());
+    }
+
+    /**
+     * Records the time elapsed since the given publish time; unknown (null) is skipped.
+     */
+    public void recordSince(Long publishedAtMillis) {
+        if (publishedAtMillis != null) {
+            update(System.currentTimeMillis() - publishedAtMillis);
+        }
+    }
+
+    /**
+     * Records the time from the given publish time to a later point; unknown (null) ends are skipped.
+     */
+    public void recordBetween(Long publishedAtMillis, Long atMillis) {
+        if (publishedAtMillis != null && atMillis != null) {
+            update(atMillis - publishedAtMillis);
+        }
+    }
+
+    @Override
+    public void update(long latencyMs) {
+        // Clocks of publisher and pipeline may drift slightly apart
+        recorder.recordValue(Math.min(Math.max(latencyMs, 0), HIGHEST_TRACKABLE_MS));
+    }
+
+    @Override
+    public synchronized long getCount() {
+        rotateIfDue();
+        return rotatedCount;
+    }
+
+    @Override
+    public synchronized HistogramStatistics getStatistics() {
+        rotateIfDue();
+        return new HdrStatistics(lastInterval);
+    }
+
+    private void rotateIfDue() {
+        long now = System.nanoTime();
+        if (now - lastRotationNanos >= INTERVAL_NANOS) {
+            lastInterval = recorder.getIntervalHistogram();
+            rotatedCount += lastInterval.getTotalCount();
+            lastRotationNanos = now;
+        }
+    }
+
+    private static final class HdrStatistics extends HistogramStatistics {
+        private final org.HdrHistogram.Histogram histogram;
+
+        HdrStatistics(org.HdrHistogram.Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getQuantile(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        /**
+         * One representative value per recorded bucket rather than every sample.
+         */
+        @Override
+        public long[] getValues() {
+            LongStream.Builder values = LongStream.builder();
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values.add(value.getValueIteratedTo());
+            }
+            return values.build().toArray();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.enterprise.java.streaming.flink;
+
+import com.enterprise.java.streaming.util.PublishTimestamps;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.connector.kafka.source.reader.deserializer.KafkaRecordDeserializationSchema;
+import org.apache.flink.util.Collector;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the raw JSON payload together with its publish time (epoch ms), leaving
+ * parsing to the downstream parser operator.
+ */
+public class PublishedRecordDeserializationSchema implements KafkaRecordDeserializationSchema<Tuple2<String, Long>> {
+
+    @Override
+    public void deserialize(ConsumerRecord<byte[], byte[]> record, Collector<Tuple2<String, Long>> out) {
+        if (record.value() == null) {
+            return;
+        }
+        out.collect(Tuple2.of(
+                new String(record.value(), StandardCharsets.UTF_8),
+                PublishTimestamps.fromRecord(record.headers(), record.timestamp())));
+    }
+
+    @Override
+    public TypeInformation<Tuple2<String, Long>> getProducedType() {
+        return Types.TUPLE(Types.STRING, Types.LONG);
+    }
+}
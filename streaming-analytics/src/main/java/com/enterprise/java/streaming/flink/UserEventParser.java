@@ -0,0 +1,64 @@
+package com.enterprise.java.streaming.flink;
+
+import com.enterprise.java.streaming.model.UserEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parses the raw JSON payload read by {@link PublishedRecordDeserializationSchema} into a
+ * {@link UserEvent}, recording ingest and parse latency since publish.
+ */
+public class UserEventParser extends RichMapFunction<Tuple2<String, Long>, UserEvent> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule());
+
+    private transient Counter eventsParsed;
+    private transient Counter parseErrors;
+    private transient Histogram latency;
+    private transient HdrLatencyHistogram ingestLatency;
+    private transient HdrLatencyHistogram parseLatency;
+
+    @Override
+    public void open(Configuration parameters) {
+        MetricGroup group = getRuntimeContext().getMetricGroup();
+        ingestLatency = HdrLatencyHistogram.register(group, "ingest");
+        parseLatency = HdrLatencyHistogram.register(group, "parse");
+        eventsParsed = group.counter(CollectorMetricReporter.EVENTS_PARSED);
+        parseErrors = group.counter(CollectorMetricReporter.PARSE_ERRORS);
+        latency = group.histogram(CollectorMetricReporter.OPERATOR_LATENCY,
+                new DescriptiveStatisticsHistogram(CollectorMetricReporter.HISTOGRAM_WINDOW_SIZE));
+    }
+
+    @Override
+    public UserEvent map(Tuple2<String, Long> record) throws Exception {
+        long start = System.nanoTime();
+        ingestLatency.recordSince(record.f1);
+        try {
+            UserEvent event = objectMapper.readValue(record.f0, UserEvent.class);
+            event.setPublishedAtMillis(record.f1);
+            eventsParsed.inc();
+            parseLatency.recordSince(record.f1);
+            return event;
+        } catch (Exception e) {
+            parseErrors.inc();
+            // Return a default event for parsing errors
+            return UserEvent.builder()
+                    .userId("unknown")
+                    .eventType("PARSE_ERROR")
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        } finally {
+            latency.update(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.enterprise.java.streaming.ingestion;
+
+import com.enterprise.java.streaming.model.UserEvent;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named, bounded in-process queue of decoded user events for one engine.
+ *
+ * Channels are registered by name so that engine operators which are serialized
+ * and re-instantiated (Flink sources) can find their queue again inside the same JVM.
+ *
+ * The engine reports through {@link #acknowledge(long)} how many of the channel's events
+ * it has durably processed; the shared ingestion only commits Kafka offsets up to the
+ * position every channel has acknowledged.
+ */
+public class EventChannel {
+
+    private static final Map<String, EventChannel> registry = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int capacity;
+    private final BlockingQueue<UserEvent> queue;
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong acknowledged = new AtomicLong();
+
+    private EventChannel(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    static EventChannel register(String name, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        EventChannel channel = new EventChannel(name, capacity);
+        if (registry.putIfAbsent(name, channel) != null) {
+            throw new IllegalStateException("Event channel already registered: " + name);
+        }
+        return channel;
+    }
+
+    /**
+     * Returns the registered channel with the given name.
+     */
+    public static EventChannel lookup(String name) {
+        EventChannel channel = registry.get(name);
+        if (channel == null) {
+            throw new IllegalStateException("No event channel registered: " + name);
+        }
+        return channel;
+    }
+
+    void unregister() {
+        registry.remove(name, this);
+    }
+
+    /**
+     * Waits up to the timeout for room; false if the event was not added.
+     */
+    boolean offer(UserEvent event, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(event, timeout, unit);
+    }
+
+    /**
+     * Waits up to the timeout for the next event; null if none arrived.
+     */
+    public UserEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        UserEvent event = queue.poll(timeout, unit);
+        if (event != null) {
+            taken.incrementAndGet();
+        }
+        return event;
+    }
+
+    public int drainTo(Collection<? super UserEvent> target, int maxEvents) {
+        int drained = queue.drainTo(target, maxEvents);
+        taken.addAndGet(drained);
+        return drained;
+    }
+
+    /**
+     * Number of events taken from this channel since it was registered.
+     */
+    public long getTaken() {
+        return taken.get();
+    }
+
+    /**
+     * Marks the first {@code processedEvents} events taken from this channel, counted since
+     * it was registered, as processed. Positions below the current one are ignored.
+     */
+    public void acknowledge(long processedEvents) {
+        acknowledged.accumulateAndGet(processedEvents, Math::max);
+    }
+
+    long getAcknowledged() {
+        return acknowledged.get();
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "EventChannel{name='" + name + "', size=" + queue.size() + ", capacity=" + capacity + '}';
+    }
+}
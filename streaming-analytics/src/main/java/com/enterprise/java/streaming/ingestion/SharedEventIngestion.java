@@ -0,0 +1,362 @@
+package com.enterprise.java.streaming.ingestion;
+
+import com.enterprise.java.streaming.model.UserEvent;
+import com.enterprise.java.streaming.util.KafkaEventDeserializer;
+import com.enterprise.java.streaming.util.PublishTimestamps;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single Kafka consumer for the user-events topic, shared by the in-process engines.
+ *
+ * Each record is decoded once into a {@link UserEvent} and the same instance is handed
+ * to every subscribed {@link EventChannel}. Backpressure reaches Kafka by pausing the
+ * assigned partitions whenever any channel lacks room for a full poll, so a slow
+ * engine throttles the consumer instead of growing a queue. Events that still do not
+ * fit, e.g. from partitions assigned during a poll, are only offered with a timeout and
+ * held back until the next round; poll() keeps running in the meantime so the consumer
+ * stays within max.poll.interval.ms.
+ *
+ * Delivery is at-least-once. Offsets of a poll are committed only after every channel
+ * has acknowledged all events up to the end of that poll, so events lost from the
+ * channels or from an engine on a crash are consumed again after the restart, and
+ * engines may see some events twice. Consumers that need exactly-once output should
+ * keep reading Kafka directly.
+ */
+public class SharedEventIngestion implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedEventIngestion.class);
+
+    private static final String KAFKA_BOOTSTRAP_SERVERS = "localhost:9092";
+    private static final String USER_EVENTS_TOPIC = "user-events";
+    private static final String CONSUMER_GROUP = "shared-event-ingestion";
+    private static final int MAX_POLL_RECORDS = 500;
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final String groupId;
+    private final List<EventChannel> channels = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong decodedEvents = new AtomicLong();
+    private final AtomicLong skippedRecords = new AtomicLong();
+    private final AtomicLong backpressurePauses = new AtomicLong();
+    private final AtomicLong firstEventNanos = new AtomicLong(-1);
+    private final AtomicLong offsetCommits = new AtomicLong();
+
+    // Offsets of each poll awaiting acknowledgement, oldest first; poll thread only
+    private final Deque<PendingOffsets> pendingOffsets = new ArrayDeque<>();
+    // Decoded events not yet in every channel, and how many channels already hold the
+    // first of them; poll thread only
+    private final Deque<UserEvent> backlog = new ArrayDeque<>();
+    private int firstEventDeliveries;
+    // Whether the assigned partitions are paused for backpressure; poll thread only
+    private boolean paused;
+
+    private volatile boolean running;
+    private volatile KafkaConsumer<String, UserEvent> consumer;
+    private Thread pollThread;
+
+    public SharedEventIngestion() {
+        this(KAFKA_BOOTSTRAP_SERVERS, USER_EVENTS_TOPIC, CONSUMER_GROUP);
+    }
+
+    public SharedEventIngestion(String bootstrapServers, String topic, String groupId) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.groupId = groupId;
+    }
+
+    /**
+     * Registers a bounded channel that receives every decoded event. Must be called before {@link #start()}.
+     */
+    public synchronized EventChannel subscribe(String name, int capacity) {
+        if (pollThread != null) {
+            throw new IllegalStateException("Channels must be subscribed before ingestion starts");
+        }
+        if (capacity < MAX_POLL_RECORDS) {
+            throw new IllegalArgumentException("capacity must hold at least one poll of " + MAX_POLL_RECORDS + " records");
+        }
+        EventChannel channel = EventChannel.register(name, capacity);
+        channels.add(channel);
+        logger.info("🔗 Subscribed event channel '{}' (capacity {})", name, capacity);
+        return channel;
+    }
+
+    public synchronized void start() {
+        if (pollThread != null) {
+            return;
+        }
+        if (channels.isEmpty()) {
+            throw new IllegalStateException("No event channels subscribed");
+        }
+        running = true;
+        pollThread = new Thread(this::pollLoop, "shared-event-ingestion");
+        pollThread.setDaemon(true);
+        pollThread.start();
+        logger.info("📥 Shared ingestion consuming '{}' for {} channel(s)", topic, channels.size());
+    }
+
+    private void pollLoop() {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, MAX_POLL_RECORDS);
+        // Offsets are committed once the engines have acknowledged the events
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        try (KafkaConsumer<String, UserEvent> kafkaConsumer =
+                     new KafkaConsumer<>(props, new StringDeserializer(), new KafkaEventDeserializer())) {
+            consumer = kafkaConsumer;
+            kafkaConsumer.subscribe(List.of(topic), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    try {
+                        commitAcknowledged(kafkaConsumer, true);
+                    } catch (WakeupException e) {
+                        throw e;
+                    } catch (KafkaException e) {
+                        logger.warn("⚠️ Offset commit on rebalance failed: {}", e.getMessage());
+                    }
+                    // Queued events of revoked partitions are redelivered to their new owner
+                    pendingOffsets.forEach(pending -> pending.offsets.keySet().removeAll(partitions));
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    // Newly assigned partitions would otherwise deliver a full poll into full channels
+                    if (paused) {
+                        kafkaConsumer.pause(partitions);
+                    }
+                }
+            });
+            try {
+                consume(kafkaConsumer);
+            } catch (WakeupException e) {
+                // Raised by close() to interrupt a blocking poll
+            } finally {
+                commitOnExit(kafkaConsumer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("❌ Shared event ingestion failed", e);
+        } finally {
+            consumer = null;
+            logger.info("📥 Shared ingestion stopped after {} events ({} skipped, {} backpressure pauses, {} offset commits)",
+                    decodedEvents.get(), skippedRecords.get(), backpressurePauses.get(), offsetCommits.get());
+        }
+    }
+
+    private void consume(KafkaConsumer<String, UserEvent> kafkaConsumer) throws InterruptedException {
+        while (running) {
+            // A full poll must fit into every channel; otherwise keep polling (for
+            // heartbeats) with all partitions paused until the engines catch up
+            boolean hasRoom = backlog.isEmpty()
+                    && channels.stream().allMatch(c -> c.remainingCapacity() >= MAX_POLL_RECORDS);
+            if (!hasRoom) {
+                kafkaConsumer.pause(kafkaConsumer.assignment());
+                if (!paused) {
+                    backpressurePauses.incrementAndGet();
+                    paused = true;
+                }
+            } else if (paused) {
+                kafkaConsumer.resume(kafkaConsumer.paused());
+                paused = false;
+            }
+
+            ConsumerRecords<String, UserEvent> records = kafkaConsumer.poll(POLL_TIMEOUT);
+            // Records are deserialized inside poll(), so this is when the batch was decoded
+            long decodedAtMillis = System.currentTimeMillis();
+            for (ConsumerRecord<String, UserEvent> record : records) {
+                UserEvent event = record.value();
+                if (event == null) {
+                    // Tombstone or undecodable payload, already logged by the deserializer
+                    skippedRecords.incrementAndGet();
+                    continue;
+                }
+                event.setPublishedAtMillis(PublishTimestamps.fromRecord(record.headers(), record.timestamp()));
+                event.setDecodedAtMillis(decodedAtMillis);
+                backlog.addLast(event);
+                if (decodedEvents.incrementAndGet() == 1) {
+                    firstEventNanos.set(System.nanoTime());
+                }
+            }
+            if (!records.isEmpty()) {
+                pendingOffsets.addLast(new PendingOffsets(decodedEvents.get(), nextOffsets(records)));
+            }
+            deliverBacklog();
+            commitAcknowledged(kafkaConsumer, false);
+        }
+    }
+
+    /**
+     * Hands held-back events to every channel in order, waiting at most one offer
+     * timeout for a full channel before returning to poll().
+     */
+    private void deliverBacklog() throws InterruptedException {
+        while (!backlog.isEmpty()) {
+            UserEvent event = backlog.peekFirst();
+            while (firstEventDeliveries < channels.size()) {
+                if (!channels.get(firstEventDeliveries).offer(event, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                firstEventDeliveries++;
+            }
+            backlog.removeFirst();
+            firstEventDeliveries = 0;
+        }
+    }
+
+    private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(ConsumerRecords<String, UserEvent> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<String, UserEvent>> partitionRecords = records.records(partition);
+            offsets.put(partition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+        }
+        return offsets;
+    }
+
+    /**
+     * Commits the offsets of every poll whose events all channels have acknowledged.
+     */
+    private void commitAcknowledged(KafkaConsumer<String, UserEvent> kafkaConsumer, boolean sync) {
+        // Every channel receives every event, so positions are comparable across channels
+        long acknowledged = channels.stream().mapToLong(EventChannel::getAcknowledged).min().orElse(0);
+        Map<TopicPartition, OffsetAndMetadata> ready = new HashMap<>();
+        while (!pendingOffsets.isEmpty() && pendingOffsets.peekFirst().position <= acknowledged) {
+            ready.putAll(pendingOffsets.removeFirst().offsets);
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            kafkaConsumer.commitSync(ready);
+            offsetCommits.incrementAndGet();
+        } else {
+            kafkaConsumer.commitAsync(ready, (offsets, e) -> {
+                if (e != null) {
+                    // A later commit covers these offsets; until then they are redelivered on restart
+                    logger.warn("⚠️ Offset commit failed: {}", e.getMessage());
+                } else {
+                    offsetCommits.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void commitOnExit(KafkaConsumer<String, UserEvent> kafkaConsumer) {
+        try {
+            try {
+                commitAcknowledged(kafkaConsumer, true);
+            } catch (WakeupException e) {
+                // close() may have woken the consumer after the loop had already exited
+                commitAcknowledged(kafkaConsumer, true);
+            }
+        } catch (KafkaException e) {
+            logger.warn("⚠️ Final offset commit failed, unacknowledged events will be redelivered: {}", e.getMessage());
+        }
+        if (!pendingOffsets.isEmpty()) {
+            logger.info("📥 {} poll(s) not yet acknowledged by every engine will be consumed again on restart",
+                    pendingOffsets.size());
+        }
+    }
+
+    /**
+     * Whether the consumer is subscribed and polling.
+     */
+    public boolean isRunning() {
+        return running && consumer != null;
+    }
+
+    /**
+     * Blocks until the poll loop has exited.
+     */
+    public void awaitTermination() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = pollThread;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the first event was decoded, or -1 before that.
+     */
+    public long getFirstEventNanos() {
+        return firstEventNanos.get();
+    }
+
+    public long getDecodedEvents() {
+        return decodedEvents.get();
+    }
+
+    public long getSkippedRecords() {
+        return skippedRecords.get();
+    }
+
+    public long getBackpressurePauses() {
+        return backpressurePauses.get();
+    }
+
+    public long getOffsetCommits() {
+        return offsetCommits.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        KafkaConsumer<String, UserEvent> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (pollThread != null) {
+            try {
+                pollThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channels.forEach(EventChannel::unregister);
+        channels.clear();
+    }
+
+    /**
+     * Next offsets per partition after one poll, and the event count the poll ended at.
+     */
+    private static final class PendingOffsets {
+        private final long position;
+        private final Map<TopicPartition, OffsetAndMetadata> offsets;
+
+        private PendingOffsets(long position, Map<TopicPartition, OffsetAndMetadata> offsets) {
+            this.position = position;
+            this.offsets = offsets;
+        }
+    }
+}
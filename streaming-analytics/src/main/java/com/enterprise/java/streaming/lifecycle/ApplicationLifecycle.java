@@ -0,0 +1,261 @@
+package com.enterprise.java.streaming.lifecycle;
+
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts, health-checks and stops the pipeline components as one unit.
+ *
+ * Components run on virtual threads and start one at a time in registration
+ * (dependency) order, each waiting until the previous one is ready. The first
+ * component to fail, exit on its own or report unhealthy brings the whole
+ * application down; shutdown drains components in reverse order. Java 21's
+ * StructuredTaskScope is still a preview API, so the shutdown-on-failure scope is
+ * implemented here on a virtual-thread executor.
+ *
+ * Per-component startup time, startup-to-first-event latency and per-component
+ * drain time are logged and recorded through {@link StreamingMetricsCollector}.
+ */
+public class ApplicationLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationLifecycle.class);
+
+    private static final Duration READY_POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final List<ManagedComponent> components = new ArrayList<>();
+    private final Map<ManagedComponent, Future<?>> tasks = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("lifecycle-", 0).factory());
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private final Duration startupTimeout;
+    private final Duration drainTimeout;
+    private final Duration healthCheckInterval;
+    private final StreamingMetricsCollector metricsCollector;
+
+    private volatile boolean started;
+    private volatile long startNanos;
+    private volatile Throwable failure;
+
+    public ApplicationLifecycle(Duration startupTimeout, Duration drainTimeout, Duration healthCheckInterval,
+                                StreamingMetricsCollector metricsCollector) {
+        this.startupTimeout = startupTimeout;
+        this.drainTimeout = drainTimeout;
+        this.healthCheckInterval = healthCheckInterval;
+        this.metricsCollector = metricsCollector;
+    }
+
+    /**
+     * Adds a component; components start in the order they are registered.
+     */
+    public synchronized ApplicationLifecycle register(ManagedComponent component) {
+        if (started) {
+            throw new IllegalStateException("Components must be registered before start");
+        }
+        components.add(component);
+        return this;
+    }
+
+    /**
+     * Starts every component in order and returns once all are ready. On failure the
+     * components already started are stopped and the cause is rethrown.
+     */
+    public void start() throws Exception {
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("Lifecycle already started");
+            }
+            started = true;
+            startNanos = System.nanoTime();
+        }
+        logger.info("🚦 Starting {} components: {}", components.size(), components.stream().map(ManagedComponent::name).toList());
+
+        for (ManagedComponent component : components) {
+            long componentStart = System.nanoTime();
+            tasks.put(component, executor.submit(() -> runComponent(component)));
+            try {
+                awaitReady(component);
+            } catch (Exception e) {
+                fail(component, e);
+                shutdown();
+                throw e;
+            }
+            long startupMs = elapsedMs(componentStart);
+            metricsCollector.recordLifecyclePhase("startup", component.name(), startupMs);
+            logger.info("✅ {} ready in {} ms", component.name(), startupMs);
+        }
+
+        logger.info("🚦 All components ready in {} ms", elapsedMs(startNanos));
+        executor.submit(this::monitor);
+    }
+
+    private Void runComponent(ManagedComponent component) throws Exception {
+        try {
+            component.run();
+            if (!stopping.get()) {
+                throw new IllegalStateException(component.name() + " exited unexpectedly");
+            }
+        } catch (Exception e) {
+            if (!stopping.get()) {
+                fail(component, e);
+                // Shut down from a separate thread: shutdown waits for this task to finish
+                executor.submit(this::shutdown);
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    private void awaitReady(ManagedComponent component) throws Exception {
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        Future<?> task = tasks.get(component);
+        while (!component.isReady()) {
+            if (task.isDone()) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+                throw new IllegalStateException(component.name() + " exited during startup");
+            }
+            if (stopping.get()) {
+                throw new IllegalStateException("Shutdown requested while starting " + component.name());
+            }
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(component.name() + " not ready within " + startupTimeout);
+            }
+            Thread.sleep(READY_POLL_INTERVAL.toMillis());
+        }
+    }
+
+    private void monitor() {
+        boolean firstEventReported = false;
+        long nextHealthCheck = System.nanoTime() + healthCheckInterval.toNanos();
+        try {
+            while (!stopping.get()) {
+                if (!firstEventReported) {
+                    firstEventReported = reportFirstEvent();
+                }
+                if (System.nanoTime() >= nextHealthCheck) {
+                    for (ManagedComponent component : components) {
+                        if (!component.isHealthy() && !stopping.get()) {
+                            fail(component, new IllegalStateException(component.name() + " failed its health check"));
+                            shutdown();
+                            return;
+                        }
+                    }
+                    nextHealthCheck = System.nanoTime() + healthCheckInterval.toNanos();
+                }
+                // Poll quickly until the first event so its latency is reported promptly
+                Thread.sleep(firstEventReported ? healthCheckInterval.toMillis() : READY_POLL_INTERVAL.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean reportFirstEvent() {
+        long firstEvent = components.stream()
+                .mapToLong(ManagedComponent::firstEventNanos)
+                .filter(nanos -> nanos != -1)
+                .min()
+                .orElse(-1);
+        if (firstEvent < 0) {
+            return false;
+        }
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(firstEvent - startNanos);
+        metricsCollector.recordLifecyclePhase("first_event", "pipeline", latencyMs);
+        logger.info("📬 First event processed {} ms after startup began", latencyMs);
+        return true;
+    }
+
+    /**
+     * Stops all components in reverse start order, giving each the drain timeout.
+     * Safe to call more than once and from any thread; later callers wait for the first.
+     */
+    public void shutdown() {
+        if (!stopping.compareAndSet(false, true)) {
+            awaitTerminationQuietly();
+            return;
+        }
+        logger.info("🛑 Draining components in reverse start order");
+        long shutdownStart = System.nanoTime();
+
+        List<ManagedComponent> startedComponents = new ArrayList<>(components.stream().filter(tasks::containsKey).toList());
+        Collections.reverse(startedComponents);
+
+        for (ManagedComponent component : startedComponents) {
+            long drainStart = System.nanoTime();
+            Future<?> task = tasks.get(component);
+            try {
+                component.stop(drainTimeout);
+                task.get(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("⚠️ {} did not stop within {}, interrupting", component.name(), drainTimeout);
+                task.cancel(true);
+            } catch (ExecutionException e) {
+                // Failure is already recorded, or the component threw while being stopped
+                logger.debug("{} finished with {}", component.name(), e.getCause().toString());
+            } catch (Exception e) {
+                logger.error("❌ Error stopping {}", component.name(), e);
+            }
+            long drainMs = elapsedMs(drainStart);
+            metricsCollector.recordLifecyclePhase("drain", component.name(), drainMs);
+            logger.info("✅ {} drained in {} ms", component.name(), drainMs);
+        }
+
+        executor.shutdownNow();
+        logger.info("🛑 Shutdown completed in {} ms", elapsedMs(shutdownStart));
+        terminated.countDown();
+    }
+
+    /**
+     * Blocks until {@link #shutdown()} has finished, whether requested or caused by a failure.
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    private void awaitTerminationQuietly() {
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(ManagedComponent component, Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+            logger.error("❌ {} failed, shutting down the pipeline", component.name(), cause);
+        }
+    }
+
+    /**
+     * The first component failure, or null if the application stopped normally.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    private static long elapsedMs(long fromNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fromNanos);
+    }
+}
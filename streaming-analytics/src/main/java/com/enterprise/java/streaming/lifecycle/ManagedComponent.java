@@ -0,0 +1,43 @@
+package com.enterprise.java.streaming.lifecycle;
+
+import java.time.Duration;
+
+/**
+ * A long-running part of the pipeline whose start, health and shutdown are driven by
+ * {@link ApplicationLifecycle}.
+ */
+public interface ManagedComponent {
+
+    String name();
+
+    /**
+     * Starts the component and blocks the calling (virtual) thread until it stops.
+     * Returning or throwing before {@link #stop(Duration)} is treated as a failure.
+     */
+    void run() throws Exception;
+
+    /**
+     * Whether the component has finished starting and is accepting work.
+     */
+    boolean isReady();
+
+    /**
+     * Whether the component is still working; checked periodically once ready.
+     */
+    default boolean isHealthy() {
+        return isReady();
+    }
+
+    /**
+     * Drains in-flight work within the timeout and stops; {@link #run()} returns afterwards.
+     */
+    void stop(Duration drainTimeout) throws Exception;
+
+    /**
+     * {@link System#nanoTime()} at which the first event passed through, or -1 if not
+     * yet (or not applicable). Used to report startup-to-first-event latency.
+     */
+    default long firstEventNanos() {
+        return -1;
+    }
+}
@@ -1,6 +1,7 @@
 package com.enterprise.java.streaming.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -9,7 +10,14 @@ import io.micrometer.prometheus.PrometheusMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 /**
  * Production-ready metrics collector for streaming analytics
@@ -18,20 +26,29 @@ import java.util.concurrent.atomic.AtomicLong;
 public class StreamingMetricsCollector {
     private static final Logger logger = LoggerFactory.getLogger(StreamingMetricsCollector.class);
     
+    public static final String SUSPICIOUS_LOGIN_ALERT = "SUSPICIOUS_LOGIN_PATTERN";
+    
     private final MeterRegistry meterRegistry;
     
     // Counters for business metrics
     private final Counter totalEventsProcessed;
-    private final Counter suspiciousLoginAttempts;
-    private final Counter alertsTriggered;
+    
+    // Alert counters of the running operators, and the final counts of retired ones by alert type
+    private final Map<Object, AlertSource> alertSources = new ConcurrentHashMap<>();
+    private final Map<String, Long> retiredAlerts = new ConcurrentHashMap<>();
     
     // Gauges for current state
     private final AtomicLong uniqueUsers = new AtomicLong(0);
     private final AtomicLong activeStreams = new AtomicLong(0);
     private final AtomicLong throughputPerSecond = new AtomicLong(0);
+    private final AtomicLong modelVersion = new AtomicLong(0);
     
     // Timers for performance metrics
     private final Timer processingTime;
+    private final Timer modelTrainingTime;
+    
+    // Latest progress per Spark streaming query
+    private final Map<String, QueryProgressGauges> queryProgress = new ConcurrentHashMap<>();
     
     public StreamingMetricsCollector() {
         this.meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
@@ -41,24 +58,33 @@ public class StreamingMetricsCollector {
                 .description("Total number of events processed")
                 .register(meterRegistry);
                 
-        this.suspiciousLoginAttempts = Counter.builder("suspicious_login_attempts_total")
+        // Alert totals are summed from the operators' own alert counters at scrape time
+        FunctionCounter.builder("suspicious_login_attempts_total", this,
+                        c -> c.alertCount(SUSPICIOUS_LOGIN_ALERT::equals))
                 .description("Total number of suspicious login attempts detected")
                 .register(meterRegistry);
                 
-        this.alertsTriggered = Counter.builder("streaming_alerts_triggered_total")
+        FunctionCounter.builder("streaming_alerts_triggered_total", this, c -> c.alertCount(type -> true))
                 .description("Total number of alerts triggered")
                 .register(meterRegistry);
         
         // Initialize gauges
-        meterRegistry.gauge("streaming_unique_users", uniqueUsers);
+        Gauge.builder("streaming_unique_users", uniqueUsers, AtomicLong::get)
+                .description("Users with live feature state, i.e. active within the feature idle timeout")
+                .register(meterRegistry);
         meterRegistry.gauge("streaming_active_streams", activeStreams);
         meterRegistry.gauge("streaming_throughput_per_second", throughputPerSecond);
+        meterRegistry.gauge("streaming_model_version", modelVersion);
         
         // Initialize timers
         this.processingTime = Timer.builder("streaming_processing_duration_seconds")
                 .description("Time taken to process streaming events")
                 .register(meterRegistry);
         
+        this.modelTrainingTime = Timer.builder("streaming_model_training_duration_seconds")
+                .description("Time taken to train and persist the user segmentation model")
+                .register(meterRegistry);
+        
         logger.info("✅ Streaming metrics collector initialized with Prometheus registry");
     }
     
@@ -71,12 +97,36 @@ public class StreamingMetricsCollector {
         totalEventsProcessed.increment(count);
     }
     
-    public void incrementSuspiciousLogins() {
-        suspiciousLoginAttempts.increment();
+    /**
+     * Counts the alerts of one operator instance under the given alert type until it is unbound.
+     */
+    public void bindAlertCounter(Object key, String alertType, LongSupplier count) {
+        alertSources.put(key, new AlertSource(alertType, count));
     }
     
-    public void incrementAlertsTriggered() {
-        alertsTriggered.increment();
+    /**
+     * Stops reading an operator's alert counter, keeping its final count in the totals.
+     */
+    public void unbindAlertCounter(Object key) {
+        AlertSource source = alertSources.remove(key);
+        if (source != null) {
+            retiredAlerts.merge(source.alertType, source.count.getAsLong(), Long::sum);
+        }
+    }
+    
+    private double alertCount(Predicate<String> alertType) {
+        long total = 0;
+        for (AlertSource source : alertSources.values()) {
+            if (alertType.test(source.alertType)) {
+                total += source.count.getAsLong();
+            }
+        }
+        for (Map.Entry<String, Long> retired : retiredAlerts.entrySet()) {
+            if (alertType.test(retired.getKey())) {
+                total += retired.getValue();
+            }
+        }
+        return total;
     }
     
     public void updateUniqueUsers(long count) {
@@ -99,6 +149,56 @@ public class StreamingMetricsCollector {
         sample.stop(processingTime);
     }
     
+    // ML model metrics
+    public void recordModelTraining(long durationMs, long version) {
+        if (durationMs > 0) {
+            modelTrainingTime.record(durationMs, TimeUnit.MILLISECONDS);
+        }
+        modelVersion.set(version);
+    }
+    
+    // Lifecycle metrics: startup per component, startup-to-first-event and shutdown drain
+    public void recordLifecyclePhase(String phase, String component, long durationMs) {
+        Timer.builder("streaming_lifecycle_phase_duration_seconds")
+                .description("Time spent per component in a lifecycle phase")
+                .tag("phase", phase)
+                .tag("component", component)
+                .register(meterRegistry)
+                .record(Math.max(0, durationMs), TimeUnit.MILLISECONDS);
+    }
+    
+    // Spark structured streaming progress, reported once per micro-batch. Every query reads
+    // the same events, so rows are only counted per query here, not in events_processed
+    public void recordQueryProgress(String queryName, long numInputRows, double inputRowsPerSecond,
+                                    double processedRowsPerSecond, long batchDurationMs) {
+        QueryProgressGauges gauges = queryProgress.computeIfAbsent(queryName, this::registerQueryProgress);
+        gauges.inputRows.increment(numInputRows);
+        gauges.inputRowsPerSecond = inputRowsPerSecond;
+        gauges.processedRowsPerSecond = processedRowsPerSecond;
+        gauges.batchDuration.record(Math.max(0, batchDurationMs), TimeUnit.MILLISECONDS);
+    }
+    
+    private QueryProgressGauges registerQueryProgress(String queryName) {
+        QueryProgressGauges gauges = new QueryProgressGauges(
+                Timer.builder("streaming_query_batch_duration_seconds")
+                        .description("Micro-batch duration per Spark streaming query")
+                        .tag("query", queryName)
+                        .register(meterRegistry),
+                Counter.builder("streaming_query_input_rows_total")
+                        .description("Rows read per Spark streaming query")
+                        .tag("query", queryName)
+                        .register(meterRegistry));
+        Gauge.builder("streaming_query_input_rows_per_second", gauges, g -> g.inputRowsPerSecond)
+                .description("Rate at which data arrived for the last micro-batch")
+                .tag("query", queryName)
+                .register(meterRegistry);
+        Gauge.builder("streaming_query_processed_rows_per_second", gauges, g -> g.processedRowsPerSecond)
+                .description("Rate at which the last micro-batch was processed")
+                .tag("query", queryName)
+                .register(meterRegistry);
+        return gauges;
+    }
+    
     // Get Prometheus metrics endpoint content
     public String getPrometheusMetrics() {
         if (meterRegistry instanceof PrometheusMeterRegistry) {
@@ -107,6 +207,16 @@ public class StreamingMetricsCollector {
         return "";
     }
     
+    /**
+     * Streams the exposition text in the given format (Prometheus 0.0.4 or OpenMetrics)
+     * without building an intermediate String.
+     */
+    public void writePrometheusMetrics(Writer writer, String contentType) throws IOException {
+        if (meterRegistry instanceof PrometheusMeterRegistry) {
+            ((PrometheusMeterRegistry) meterRegistry).scrape(writer, contentType);
+        }
+    }
+    
     public MeterRegistry getMeterRegistry() {
         return meterRegistry;
     }
@@ -114,12 +224,31 @@ public class StreamingMetricsCollector {
     // Simulate realistic metrics for demo
     public void simulateRealisticMetrics() {
         incrementEventsProcessed(15430);
-        updateUniqueUsers(1247);
         updateActiveStreams(3);
-        incrementAlertsTriggered();
         updateThroughput(2340);
-        incrementSuspiciousLogins();
         
         logger.debug("📊 Simulated realistic metrics for demo purposes");
     }
+    
+    private static final class AlertSource {
+        private final String alertType;
+        private final LongSupplier count;
+        
+        AlertSource(String alertType, LongSupplier count) {
+            this.alertType = alertType;
+            this.count = count;
+        }
+    }
+    
+    private static final class QueryProgressGauges {
+        private final Timer batchDuration;
+        private final Counter inputRows;
+        private volatile double inputRowsPerSecond;
+        private volatile double processedRowsPerSecond;
+        
+        QueryProgressGauges(Timer batchDuration, Counter inputRows) {
+            this.batchDuration = batchDuration;
+            this.inputRows = inputRows;
+        }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.enterprise.java.streaming.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
@@ -35,6 +36,10 @@ public class AlertEvent {
     @JsonProperty("resolved")
     private boolean resolved = false;
     
+    // Publish time (epoch ms) of the event that triggered the alert; pipeline-internal
+    @JsonIgnore
+    private Long sourcePublishedAtMillis;
+    
     // Default constructor for Jackson
     public AlertEvent() {}
     
@@ -178,6 +183,14 @@ public class AlertEvent {
         this.resolved = resolved;
     }
     
+    public Long getSourcePublishedAtMillis() {
+        return sourcePublishedAtMillis;
+    }
+    
+    public void setSourcePublishedAtMillis(Long sourcePublishedAtMillis) {
+        this.sourcePublishedAtMillis = sourcePublishedAtMillis;
+    }
+    
     @Override
     public String toString() {
         return "AlertEvent{" +
@@ -1,6 +1,7 @@
 package com.enterprise.java.streaming.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
@@ -31,6 +32,14 @@ public class UserEvent {
     @JsonProperty("ipAddress")
     private String ipAddress;
     
+    // Kafka publish time (epoch ms) from the record header, not part of the JSON payload
+    @JsonIgnore
+    private Long publishedAtMillis;
+    
+    // When the shared ingestion decoded the payload (epoch ms); null on other paths
+    @JsonIgnore
+    private Long decodedAtMillis;
+    
     // Default constructor for Jackson
     public UserEvent() {}
     
@@ -142,6 +151,22 @@ public class UserEvent {
         this.ipAddress = ipAddress;
     }
     
+    public Long getPublishedAtMillis() {
+        return publishedAtMillis;
+    }
+    
+    public void setPublishedAtMillis(Long publishedAtMillis) {
+        this.publishedAtMillis = publishedAtMillis;
+    }
+    
+    public Long getDecodedAtMillis() {
+        return decodedAtMillis;
+    }
+    
+    public void setDecodedAtMillis(Long decodedAtMillis) {
+        this.decodedAtMillis = decodedAtMillis;
+    }
+    
     @Override
     public String toString() {
         return "UserEvent{" +
@@ -1,6 +1,7 @@
 package com.enterprise.java.streaming.server;
 
 import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
@@ -10,21 +11,56 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Production-ready metrics server for streaming analytics
  * Exposes Prometheus metrics instead of custom dashboard
+ * 
+ * Scrapes are rendered at most once per minimum interval into reused buffers and
+ * answered from that rendering, gzipped for clients that accept it. Requests are
+ * handled by a bounded pool; when it is saturated the accepting thread handles the
+ * request itself, which slows down accepting instead of queueing without limit.
  */
 public class ProductionMetricsServer {
     private static final Logger logger = LoggerFactory.getLogger(ProductionMetricsServer.class);
     private static final int DEFAULT_PORT = 8081;
+    private static final Duration DEFAULT_MIN_SCRAPE_INTERVAL = Duration.ofSeconds(1);
+    private static final int HANDLER_THREADS = 4;
+    private static final int MAX_QUEUED_REQUESTS = 64;
     
-    private HttpServer server;
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    
+    private volatile HttpServer server;
+    private ThreadPoolExecutor executor;
     private final StreamingMetricsCollector metricsCollector;
+    private final ScrapeCache prometheusCache;
+    private final ScrapeCache openMetricsCache;
     
     public ProductionMetricsServer() {
-        this.metricsCollector = new StreamingMetricsCollector();
+        this(new StreamingMetricsCollector());
+    }
+    
+    public ProductionMetricsServer(StreamingMetricsCollector metricsCollector) {
+        this(metricsCollector, DEFAULT_MIN_SCRAPE_INTERVAL);
+    }
+    
+    /**
+     * @param minScrapeInterval scrapes arriving within this interval of the last render
+     *                          are answered from the cached rendering
+     */
+    public ProductionMetricsServer(StreamingMetricsCollector metricsCollector, Duration minScrapeInterval) {
+        this.metricsCollector = metricsCollector;
+        this.prometheusCache = new ScrapeCache(
+                writer -> metricsCollector.writePrometheusMetrics(writer, PROMETHEUS_CONTENT_TYPE), minScrapeInterval);
+        this.openMetricsCache = new ScrapeCache(
+                writer -> metricsCollector.writePrometheusMetrics(writer, OPENMETRICS_CONTENT_TYPE), minScrapeInterval);
     }
     
     public void start() throws IOException {
@@ -45,12 +81,19 @@ public class ProductionMetricsServer {
         // Root endpoint with info
         server.createContext("/", new InfoHandler());
         
-        server.setExecutor(Executors.newCachedThreadPool());
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(HANDLER_THREADS, HANDLER_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "metrics-http-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        server.setExecutor(executor);
         server.start();
         
-        // Initialize with demo data
-        metricsCollector.simulateRealisticMetrics();
-        
         logger.info("✅ Production Metrics Server started successfully");
         logger.info("📊 Prometheus metrics: http://localhost:{}/metrics", port);
         logger.info("❤️ Health check: http://localhost:{}/health", port);
@@ -58,36 +101,91 @@ public class ProductionMetricsServer {
     }
     
     public void stop() {
+        stop(0);
+    }
+    
+    /**
+     * Stops accepting connections and waits up to the given time for in-flight exchanges.
+     */
+    public void stop(int drainSeconds) {
         if (server != null) {
             logger.info("🛑 Stopping Production Metrics Server");
-            server.stop(0);
+            server.stop(drainSeconds);
+            server = null;
+            executor.shutdown();
             logger.info("✅ Production Metrics Server stopped");
         }
     }
     
+    public boolean isRunning() {
+        return server != null;
+    }
+    
     public StreamingMetricsCollector getMetricsCollector() {
         return metricsCollector;
     }
     
     /**
-     * Prometheus metrics endpoint - industry standard format
+     * Prometheus metrics endpoint - industry standard format, or OpenMetrics when asked for
      */
     private class PrometheusMetricsHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
-            String metrics = metricsCollector.getPrometheusMetrics();
+            Headers requestHeaders = exchange.getRequestHeaders();
+            String accept = requestHeaders.getFirst("Accept");
+            boolean openMetrics = accept != null && accept.contains("application/openmetrics-text");
+            boolean gzip = acceptsGzip(requestHeaders.get("Accept-Encoding"));
             
-            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
-            exchange.sendResponseHeaders(200, metrics.getBytes().length);
+            byte[] body;
+            try {
+                body = (openMetrics ? openMetricsCache : prometheusCache).get().body(gzip);
+            } catch (IOException | RuntimeException e) {
+                logger.error("❌ Failed to render metrics", e);
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            
+            Headers responseHeaders = exchange.getResponseHeaders();
+            responseHeaders.add("Content-Type", openMetrics ? OPENMETRICS_CONTENT_TYPE : PROMETHEUS_CONTENT_TYPE);
+            responseHeaders.add("Vary", "Accept-Encoding");
+            if (gzip) {
+                responseHeaders.add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
             
             try (OutputStream os = exchange.getResponseBody()) {
-                os.write(metrics.getBytes());
+                os.write(body);
             }
             
             logger.debug("📊 Served Prometheus metrics to {}", exchange.getRemoteAddress());
         }
     }
     
+    /**
+     * Whether an Accept-Encoding header lists gzip without ruling it out with q=0.
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    for (int i = 1; i < parts.length; i++) {
+                        String parameter = parts[i].replace(" ", "");
+                        if (parameter.matches("q=0(\\.0*)?")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
     /**
      * Health check endpoint
      */
@@ -150,7 +248,8 @@ public class ProductionMetricsServer {
             ProductionMetricsServer server = new ProductionMetricsServer();
             server.start();
             
-            // Simulate some streaming activity
+            // Initialize with demo data and simulate some streaming activity
+            server.getMetricsCollector().simulateRealisticMetrics();
             startMetricsSimulation(server.getMetricsCollector());
             
             // Keep running
@@ -171,12 +270,6 @@ public class ProductionMetricsServer {
                     // Simulate processing events
                     collector.incrementEventsProcessed((long) (Math.random() * 100));
                     
-                    // Occasionally trigger alerts
-                    if (Math.random() < 0.1) {
-                        collector.incrementSuspiciousLogins();
-                        collector.incrementAlertsTriggered();
-                    }
-                    
                     // Update throughput
                     collector.updateThroughput((long) (2000 + Math.random() * 1000));
                     
@@ -0,0 +1,127 @@
+package com.enterprise.java.streaming.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered exposition text for one format, plain and gzipped, reused for a minimum interval.
+ *
+ * Renders write into reused scratch buffers, so each one only allocates the two response
+ * arrays. Scrapes that arrive while a render runs wait for it and share its result.
+ */
+final class ScrapeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeCache.class);
+
+    /**
+     * Writes the current exposition text.
+     */
+    interface Renderer {
+        void render(Writer writer) throws IOException;
+    }
+
+    /**
+     * One rendered scrape; the arrays are never modified after rendering.
+     */
+    static final class Scrape {
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final long renderedNanos;
+
+        private Scrape(byte[] identity, byte[] gzip, long renderedNanos) {
+            this.identity = identity;
+            this.gzip = gzip;
+            this.renderedNanos = renderedNanos;
+        }
+
+        byte[] body(boolean gzipped) {
+            return gzipped ? gzip : identity;
+        }
+    }
+
+    private final Renderer renderer;
+    private final long minIntervalNanos;
+
+    // Guarded by this
+    private final ExposedByteArrayOutputStream plainScratch = new ExposedByteArrayOutputStream(64 * 1024);
+    private final ExposedByteArrayOutputStream gzipScratch = new ExposedByteArrayOutputStream(16 * 1024);
+
+    private volatile Scrape current;
+
+    ScrapeCache(Renderer renderer, Duration minInterval) {
+        this.renderer = renderer;
+        this.minIntervalNanos = minInterval.toNanos();
+    }
+
+    /**
+     * The scrape rendered within the minimum interval, rendering a new one if there is none.
+     * If rendering fails, the previous scrape is served until a render succeeds.
+     */
+    Scrape get() throws IOException {
+        Scrape scrape = current;
+        if (isFresh(scrape)) {
+            return scrape;
+        }
+        synchronized (this) {
+            scrape = current;
+            if (isFresh(scrape)) {
+                // Rendered by the scrape this one waited for
+                return scrape;
+            }
+            try {
+                current = render();
+                return current;
+            } catch (IOException | RuntimeException e) {
+                if (scrape == null) {
+                    throw e;
+                }
+                logger.error("❌ Failed to render metrics, serving the previous scrape", e);
+                return scrape;
+            }
+        }
+    }
+
+    private boolean isFresh(Scrape scrape) {
+        return scrape != null && System.nanoTime() - scrape.renderedNanos < minIntervalNanos;
+    }
+
+    private Scrape render() throws IOException {
+        plainScratch.reset();
+        // A fresh writer per render, so output buffered by a failed render cannot leak into the next
+        Writer writer = new OutputStreamWriter(plainScratch, StandardCharsets.UTF_8);
+        renderer.render(writer);
+        writer.flush();
+
+        gzipScratch.reset();
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(gzipScratch, 8192)) {
+            gzipStream.write(plainScratch.buffer(), 0, plainScratch.size());
+        }
+
+        return new Scrape(
+                Arrays.copyOf(plainScratch.buffer(), plainScratch.size()),
+                Arrays.copyOf(gzipScratch.buffer(), gzipScratch.size()),
+                System.nanoTime());
+    }
+
+    /**
+     * ByteArrayOutputStream whose backing array can be read without copying.
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int initialSize) {
+            super(initialSize);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.enterprise.java.streaming.spark;
+
+import com.enterprise.java.streaming.model.AlertEvent;
+import com.enterprise.java.streaming.model.UserBehaviorPattern;
+import com.enterprise.java.streaming.model.UserEvent;
+import com.esotericsoftware.kryo.Kryo;
+import org.apache.spark.serializer.KryoRegistrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+
+/**
+ * Registers every class the analytics jobs ship through Kryo.
+ *
+ * Registered classes are written as a small ID instead of their full class name per
+ * record. {@code spark.kryo.registrationRequired} is on by default (see
+ * {@link SparkSessionProfile.Builder#kryoRegistrationRequired}), so a class missing here
+ * fails the task that ships it. Add new state, broadcast or model classes here when
+ * introducing them; KryoRegistrationTests exercises the streaming and batch paths.
+ *
+ * Spark already registers its common classes (primitive arrays, Scala collections and
+ * tuples, map statuses, UnsafeRow, ML vectors and matrices, SerializableConfiguration);
+ * the list below covers what it leaves out.
+ */
+public class AnalyticsKryoRegistrator implements KryoRegistrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsKryoRegistrator.class);
+
+    // Spark internals that are not public API but are shuffled, broadcast, cached or returned as task results
+    private static final String[] SPARK_INTERNAL_CLASSES = {
+            // Rows and values
+            "org.apache.spark.sql.catalyst.InternalRow",
+            "org.apache.spark.sql.catalyst.InternalRow[]",
+            "org.apache.spark.sql.catalyst.expressions.UnsafeRow",
+            "org.apache.spark.sql.catalyst.expressions.UnsafeRow[]",
+            "org.apache.spark.sql.catalyst.expressions.UnsafeArrayData",
+            "org.apache.spark.sql.catalyst.expressions.UnsafeMapData",
+            "org.apache.spark.sql.catalyst.expressions.GenericInternalRow",
+            "org.apache.spark.sql.catalyst.util.GenericArrayData",
+            "org.apache.spark.sql.catalyst.util.ArrayBasedMapData",
+            "org.apache.spark.unsafe.types.UTF8String",
+            // Broadcast joins and cached Datasets
+            "org.apache.spark.sql.execution.joins.UnsafeHashedRelation",
+            "org.apache.spark.sql.execution.joins.LongHashedRelation",
+            "org.apache.spark.sql.execution.joins.LongToUnsafeRowMap",
+            "org.apache.spark.sql.execution.joins.EmptyHashedRelation$",
+            "org.apache.spark.sql.execution.columnar.DefaultCachedBatch",
+            // File listing of the event lake and feature snapshots
+            "org.apache.spark.util.HadoopFSUtils$SerializableFileStatus",
+            "org.apache.spark.util.HadoopFSUtils$SerializableFileStatus[]",
+            "org.apache.spark.util.HadoopFSUtils$SerializableBlockLocation",
+            "org.apache.spark.util.HadoopFSUtils$SerializableBlockLocation[]",
+            // Write task results: Parquet files, streaming sinks (console, Kafka)
+            "org.apache.spark.internal.io.FileCommitProtocol$TaskCommitMessage",
+            "org.apache.spark.sql.execution.datasources.WriteTaskResult",
+            "org.apache.spark.sql.execution.datasources.BasicWriteTaskStats",
+            "org.apache.spark.sql.execution.datasources.ExecutedWriteSummary",
+            "org.apache.spark.sql.execution.datasources.v2.DataWritingSparkTaskResult",
+            "org.apache.spark.sql.connector.metric.CustomTaskMetric[]",
+            "org.apache.spark.sql.execution.streaming.sources.PackedRowCommitMessage",
+            "org.apache.spark.sql.kafka010.KafkaDataWriterCommitMessage$",
+            "org.apache.spark.sql.execution.streaming.state.StateStoreId",
+            // KMeans training and segment scoring
+            "org.apache.spark.ml.linalg.DenseVector",
+            "org.apache.spark.ml.linalg.SparseVector",
+            "org.apache.spark.ml.linalg.Vector[]",
+            "org.apache.spark.mllib.clustering.VectorWithNorm",
+            "org.apache.spark.mllib.clustering.VectorWithNorm[]",
+            "org.apache.spark.mllib.clustering.EuclideanDistanceMeasure",
+            "org.apache.spark.mllib.linalg.DenseVector",
+            "org.apache.spark.mllib.linalg.Vector[]",
+            // Scala runtime classes that appear in the above
+            "scala.Tuple2[]",
+            "scala.Tuple3[]",
+            "scala.collection.immutable.Nil$",
+            "scala.collection.immutable.$colon$colon",
+            "scala.collection.immutable.ArraySeq$ofRef",
+            "scala.collection.immutable.Map$EmptyMap$",
+            "scala.collection.immutable.Set$EmptySet$",
+            "scala.collection.immutable.Set$Set1",
+            "scala.collection.mutable.ArrayBuffer",
+            "scala.collection.mutable.ArraySeq$ofRef",
+            "scala.reflect.ClassTag$GenericClassTag"
+    };
+
+    @Override
+    public void registerClasses(Kryo kryo) {
+        // Domain model
+        kryo.register(UserEvent.class);
+        kryo.register(UserBehaviorPattern.class);
+        kryo.register(AlertEvent.class);
+
+        // Streaming state and broadcast payloads
+        kryo.register(UserFeatureStore.FeatureState.class);
+        kryo.register(UserFeatureStore.UserFeatures.class);
+        kryo.register(double[].class);
+        kryo.register(double[][].class);
+
+        // JDK types referenced by the classes above
+        kryo.register(LocalDateTime.class);
+        kryo.register(HashMap.class);
+        kryo.register(LinkedHashMap.class);
+        kryo.register(HashSet.class);
+        kryo.register(ArrayList.class);
+        kryo.register(Object[].class);
+        kryo.register(byte[][].class);
+
+        for (String className : SPARK_INTERNAL_CLASSES) {
+            registerByName(kryo, className);
+        }
+    }
+
+    private static void registerByName(Kryo kryo, String className) {
+        try {
+            kryo.register(resolve(className));
+        } catch (ClassNotFoundException e) {
+            // Internal class renamed or absent in this Spark version, so nothing ships it
+            logger.warn("⚠️ Kryo registration skipped, class not found: {}", className);
+        }
+    }
+
+    private static Class<?> resolve(String className) throws ClassNotFoundException {
+        if (className.endsWith("[]")) {
+            Class<?> component = resolve(className.substring(0, className.length() - 2));
+            return java.lang.reflect.Array.newInstance(component, 0).getClass();
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return Class.forName(className, false, loader != null ? loader : AnalyticsKryoRegistrator.class.getClassLoader());
+    }
+}
@@ -0,0 +1,162 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.sql.SparkSession;
+
+/**
+ * Tuning knobs for the historical batch analytics jobs.
+ *
+ * Exposes the adaptive query execution (AQE) settings that matter for the lake
+ * workloads: partition coalescing after wide aggregations, skew-join splitting for
+ * hot users, and the broadcast threshold for the small dimension-like tables
+ * (cohort sizes, baselines) that the jobs also hint explicitly.
+ */
+public class BatchAnalyticsConfig {
+
+    private final String reportPath;
+    private final boolean adaptiveEnabled;
+    private final boolean coalescePartitions;
+    private final String advisoryPartitionSize;
+    private final boolean skewJoinEnabled;
+    private final int skewedPartitionFactor;
+    private final String skewedPartitionThreshold;
+    private final String autoBroadcastJoinThreshold;
+    private final double anomalyZScore;
+
+    private BatchAnalyticsConfig(Builder builder) {
+        this.reportPath = builder.reportPath;
+        this.adaptiveEnabled = builder.adaptiveEnabled;
+        this.coalescePartitions = builder.coalescePartitions;
+        this.advisoryPartitionSize = builder.advisoryPartitionSize;
+        this.skewJoinEnabled = builder.skewJoinEnabled;
+        this.skewedPartitionFactor = builder.skewedPartitionFactor;
+        this.skewedPartitionThreshold = builder.skewedPartitionThreshold;
+        this.autoBroadcastJoinThreshold = builder.autoBroadcastJoinThreshold;
+        this.anomalyZScore = builder.anomalyZScore;
+    }
+
+    public static BatchAnalyticsConfig defaults() {
+        return builder().build();
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String reportPath = "/tmp/spark-batch-reports";
+        private boolean adaptiveEnabled = true;
+        private boolean coalescePartitions = true;
+        private String advisoryPartitionSize = "64MB";
+        private boolean skewJoinEnabled = true;
+        private int skewedPartitionFactor = 5;
+        private String skewedPartitionThreshold = "256MB";
+        private String autoBroadcastJoinThreshold = "32MB";
+        private double anomalyZScore = 3.0;
+
+        public Builder reportPath(String reportPath) {
+            this.reportPath = reportPath;
+            return this;
+        }
+
+        public Builder adaptiveEnabled(boolean adaptiveEnabled) {
+            this.adaptiveEnabled = adaptiveEnabled;
+            return this;
+        }
+
+        public Builder coalescePartitions(boolean coalescePartitions) {
+            this.coalescePartitions = coalescePartitions;
+            return this;
+        }
+
+        public Builder advisoryPartitionSize(String advisoryPartitionSize) {
+            this.advisoryPartitionSize = advisoryPartitionSize;
+            return this;
+        }
+
+        public Builder skewJoinEnabled(boolean skewJoinEnabled) {
+            this.skewJoinEnabled = skewJoinEnabled;
+            return this;
+        }
+
+        public Builder skewedPartitionFactor(int skewedPartitionFactor) {
+            this.skewedPartitionFactor = skewedPartitionFactor;
+            return this;
+        }
+
+        public Builder skewedPartitionThreshold(String skewedPartitionThreshold) {
+            this.skewedPartitionThreshold = skewedPartitionThreshold;
+            return this;
+        }
+
+        public Builder autoBroadcastJoinThreshold(String autoBroadcastJoinThreshold) {
+            this.autoBroadcastJoinThreshold = autoBroadcastJoinThreshold;
+            return this;
+        }
+
+        public Builder anomalyZScore(double anomalyZScore) {
+            this.anomalyZScore = anomalyZScore;
+            return this;
+        }
+
+        public BatchAnalyticsConfig build() {
+            if (skewedPartitionFactor < 1) {
+                throw new IllegalArgumentException("skewedPartitionFactor must be at least 1");
+            }
+            if (anomalyZScore <= 0) {
+                throw new IllegalArgumentException("anomalyZScore must be positive");
+            }
+            return new BatchAnalyticsConfig(this);
+        }
+    }
+
+    /**
+     * Applies the AQE settings to the session before the jobs are planned. Only meant for
+     * a session that runs batch work; see {@link BatchAnalyticsJobs#session()}.
+     */
+    public void applyTo(SparkSession spark) {
+        spark.conf().set("spark.sql.adaptive.enabled", adaptiveEnabled);
+        spark.conf().set("spark.sql.adaptive.coalescePartitions.enabled", coalescePartitions);
+        spark.conf().set("spark.sql.adaptive.advisoryPartitionSizeInBytes", advisoryPartitionSize);
+        spark.conf().set("spark.sql.adaptive.skewJoin.enabled", skewJoinEnabled);
+        spark.conf().set("spark.sql.adaptive.skewJoin.skewedPartitionFactor", skewedPartitionFactor);
+        spark.conf().set("spark.sql.adaptive.skewJoin.skewedPartitionThresholdInBytes", skewedPartitionThreshold);
+        spark.conf().set("spark.sql.autoBroadcastJoinThreshold", autoBroadcastJoinThreshold);
+    }
+
+    public String getReportPath() {
+        return reportPath;
+    }
+
+    public boolean isAdaptiveEnabled() {
+        return adaptiveEnabled;
+    }
+
+    public boolean isCoalescePartitions() {
+        return coalescePartitions;
+    }
+
+    public String getAdvisoryPartitionSize() {
+        return advisoryPartitionSize;
+    }
+
+    public boolean isSkewJoinEnabled() {
+        return skewJoinEnabled;
+    }
+
+    public int getSkewedPartitionFactor() {
+        return skewedPartitionFactor;
+    }
+
+    public String getSkewedPartitionThreshold() {
+        return skewedPartitionThreshold;
+    }
+
+    public String getAutoBroadcastJoinThreshold() {
+        return autoBroadcastJoinThreshold;
+    }
+
+    public double getAnomalyZScore() {
+        return anomalyZScore;
+    }
+}
@@ -0,0 +1,196 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.expressions.Window;
+import org.apache.spark.sql.expressions.WindowSpec;
+import org.apache.spark.sql.functions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.enterprise.java.streaming.spark.HistoricalEventLake.DATE_COLUMN;
+import static com.enterprise.java.streaming.spark.HistoricalEventLake.HOUR_COLUMN;
+
+/**
+ * Batch analytics over the historical event lake.
+ *
+ * Expects events with userId, eventType, sessionId and the lake partition columns.
+ * Large-to-small joins carry explicit broadcast hints; the one large-to-large join
+ * (retention) relies on AQE skew-join splitting for hot users. Aggregates that a report
+ * needs twice are reused through window functions rather than joined back, so no
+ * aggregate is computed twice; the raw input is cached by {@link #runAll(Dataset)}.
+ *
+ * Reports run on a child session with its own SQL configuration, so the batch tuning
+ * never reaches the streaming queries running on the parent session. Input must be
+ * read through {@link #session()}.
+ */
+public class BatchAnalyticsJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalyticsJobs.class);
+
+    private static final String EPOCH_DATE = "1970-01-01";
+
+    private final SparkSession spark;
+    private final BatchAnalyticsConfig config;
+
+    public BatchAnalyticsJobs(SparkSession spark, BatchAnalyticsConfig config) {
+        // Shares the SparkContext and cached data, but not the SQL conf
+        this.spark = spark.newSession();
+        this.config = config;
+        config.applyTo(this.spark);
+    }
+
+    /**
+     * The session the reports run on, with the batch configuration applied.
+     */
+    public SparkSession session() {
+        return spark;
+    }
+
+    /**
+     * Runs every report and writes it as Parquet under the configured report path.
+     *
+     * @return wall-clock duration per report in milliseconds
+     */
+    public Map<String, Long> runAll(Dataset<Row> events) {
+        if (events.sparkSession() != spark) {
+            // A Dataset executes with the conf of the session that created it
+            throw new IllegalArgumentException("Events must be read through BatchAnalyticsJobs.session()");
+        }
+
+        // Every report rescans the same pruned columns; cache them once
+        Dataset<Row> input = events.select(
+                functions.col("userId"),
+                functions.col("eventType"),
+                functions.col("sessionId"),
+                functions.col(DATE_COLUMN),
+                functions.col(HOUR_COLUMN)).cache();
+
+        Map<String, Long> durations = new LinkedHashMap<>();
+        try {
+            durations.put("daily_trends", writeReport("daily_trends", dailyTrends(input)));
+            durations.put("hourly_trends", writeReport("hourly_trends", hourlyTrends(input)));
+            durations.put("retention_cohorts", writeReport("retention_cohorts", retentionCohorts(input)));
+            durations.put("anomaly_baselines", writeReport("anomaly_baselines", anomalyBaselines(input)));
+        } finally {
+            input.unpersist();
+        }
+        return durations;
+    }
+
+    /**
+     * Events, users and sessions per day and event type.
+     */
+    public Dataset<Row> dailyTrends(Dataset<Row> events) {
+        return events
+                .groupBy(functions.col(DATE_COLUMN), functions.col("eventType"))
+                .agg(
+                        functions.count("*").alias("eventCount"),
+                        functions.approx_count_distinct("userId").alias("uniqueUsers"),
+                        functions.approx_count_distinct("sessionId").alias("uniqueSessions"));
+    }
+
+    /**
+     * Events and users per hour and event type.
+     */
+    public Dataset<Row> hourlyTrends(Dataset<Row> events) {
+        return events
+                .groupBy(functions.col(DATE_COLUMN), functions.col(HOUR_COLUMN), functions.col("eventType"))
+                .agg(
+                        functions.count("*").alias("eventCount"),
+                        functions.approx_count_distinct("userId").alias("uniqueUsers"));
+    }
+
+    /**
+     * Per event type, the share of users first seen on a cohort day who return N days later.
+     */
+    public Dataset<Row> retentionCohorts(Dataset<Row> events) {
+        Dataset<Row> activeDays = events
+                .select(functions.col("eventType"), functions.col("userId"), functions.col(DATE_COLUMN))
+                .distinct();
+
+        Dataset<Row> firstSeen = activeDays
+                .groupBy("eventType", "userId")
+                .agg(functions.min(DATE_COLUMN).alias("cohortDate"));
+
+        // Large-to-large join keyed by user: hot users produce skewed partitions that AQE splits
+        Dataset<Row> retained = activeDays
+                .join(firstSeen, new String[]{"eventType", "userId"})
+                .withColumn("daysSinceFirstSeen", functions.datediff(functions.col(DATE_COLUMN), functions.col("cohortDate")))
+                .groupBy("eventType", "cohortDate", "daysSinceFirstSeen")
+                .agg(functions.count("*").alias("retainedUsers"));
+
+        // Cohort size is the day-0 row of the same cohort; a window over the aggregate
+        // instead of a self-join keeps the join above from running twice
+        Column cohortSize = functions.max(
+                        functions.when(functions.col("daysSinceFirstSeen").equalTo(0), functions.col("retainedUsers")))
+                .over(Window.partitionBy("eventType", "cohortDate"));
+
+        return retained
+                .withColumn("cohortSize", cohortSize)
+                .withColumn("retentionRate", functions.col("retainedUsers").divide(functions.col("cohortSize")));
+    }
+
+    /**
+     * Mean and standard deviation of hourly volume per event type and hour of day,
+     * with each hour scored against its baseline. Hours without events count as zero
+     * from the first to the last hour in the input.
+     */
+    public Dataset<Row> anomalyBaselines(Dataset<Row> events) {
+        // Hours since the epoch, so the observed range can be enumerated without an action
+        Column hourSlot = functions.datediff(functions.col(DATE_COLUMN), functions.lit(EPOCH_DATE))
+                .multiply(24)
+                .plus(functions.col(HOUR_COLUMN));
+
+        Dataset<Row> hourlyCounts = events
+                .groupBy(functions.col("eventType"), hourSlot.alias("hourSlot"))
+                .agg(functions.count("*").alias("eventCount"));
+
+        // Every hour in range for every event type: days * 24 * types rows, small enough to broadcast
+        Dataset<Row> allHours = events
+                .agg(functions.min(hourSlot).alias("firstSlot"), functions.max(hourSlot).alias("lastSlot"))
+                .select(functions.explode(functions.sequence(functions.col("firstSlot"), functions.col("lastSlot")))
+                        .alias("hourSlot"))
+                .crossJoin(functions.broadcast(events.select("eventType").distinct()));
+
+        Dataset<Row> filledCounts = allHours
+                .join(hourlyCounts, new String[]{"eventType", "hourSlot"}, "left")
+                .select(
+                        functions.col("eventType"),
+                        functions.date_add(functions.lit(EPOCH_DATE).cast("date"),
+                                functions.floor(functions.col("hourSlot").divide(24)).cast("int")).alias(DATE_COLUMN),
+                        functions.col("hourSlot").mod(24).alias(HOUR_COLUMN),
+                        functions.coalesce(functions.col("eventCount"), functions.lit(0L)).alias("eventCount"));
+
+        // Baselines as windows over the filled counts rather than a join back onto them,
+        // which would compute the counts twice
+        WindowSpec hourOfDay = Window.partitionBy("eventType", HOUR_COLUMN);
+
+        Column zScore = functions.when(functions.col("baselineStddev").gt(0),
+                        functions.col("eventCount").minus(functions.col("baselineMean")).divide(functions.col("baselineStddev")))
+                .otherwise(functions.lit(0.0));
+
+        return filledCounts
+                .withColumn("baselineMean", functions.avg("eventCount").over(hourOfDay))
+                .withColumn("baselineStddev", functions.stddev("eventCount").over(hourOfDay))
+                .withColumn("zScore", zScore)
+                .withColumn("anomaly", functions.abs(functions.col("zScore")).geq(config.getAnomalyZScore()));
+    }
+
+    private long writeReport(String name, Dataset<Row> report) {
+        long startNanos = System.nanoTime();
+        report.write()
+                .mode(SaveMode.Overwrite)
+                .parquet(config.getReportPath() + "/" + name);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.info("📈 Report {} written in {} ms", name, durationMs);
+        return durationMs;
+    }
+}
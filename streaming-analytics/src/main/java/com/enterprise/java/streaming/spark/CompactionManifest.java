@@ -0,0 +1,134 @@
+package com.enterprise.java.streaming.spark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Commit record of a compacted hour partition, stored as {@value #FILE_NAME} inside it.
+ *
+ * Compaction moves its output into the partition as {@value #COMPACTED_PREFIX}* files, which
+ * readers ignore until a manifest lists them as added. The same manifest hides the files
+ * they replace. The manifest is written to a temporary file and renamed into place, so a
+ * reader sees either the original files or the compacted ones, never both, and a crash at
+ * any point leaves a state the next compaction run can finish or roll back.
+ */
+final class CompactionManifest {
+
+    static final String FILE_NAME = "_COMPACTED";
+    static final String COMPACTED_PREFIX = "compacted-";
+
+    private static final String HEADER = "v1";
+    private static final String ADDED = "added ";
+    private static final String REPLACED = "replaced ";
+    private static final String DATA_FILE_SUFFIX = ".parquet";
+
+    private static final CompactionManifest NONE = new CompactionManifest(false, Set.of(), Set.of());
+
+    private final boolean committed;
+    private final Set<String> added;
+    private final Set<String> replaced;
+
+    private CompactionManifest(boolean committed, Set<String> added, Set<String> replaced) {
+        this.committed = committed;
+        this.added = added;
+        this.replaced = replaced;
+    }
+
+    static CompactionManifest of(Collection<Path> added, Collection<Path> replaced) {
+        return new CompactionManifest(true, fileNames(added), fileNames(replaced));
+    }
+
+    /**
+     * The partition's manifest; an uncommitted, empty one if the partition was never compacted
+     */
+    static CompactionManifest read(Path partition) throws IOException {
+        Path file = partition.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return NONE;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+            // Manifests are renamed into place complete, so a missing header means corruption
+            throw new IOException("Malformed compaction manifest " + file + ": missing " + HEADER + " header");
+        }
+        Set<String> added = new LinkedHashSet<>();
+        Set<String> replaced = new LinkedHashSet<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.startsWith(ADDED)) {
+                added.add(line.substring(ADDED.length()));
+            } else if (line.startsWith(REPLACED)) {
+                replaced.add(line.substring(REPLACED.length()));
+            } else if (!line.isBlank()) {
+                throw new IOException("Malformed compaction manifest " + file + ": " + line);
+            }
+        }
+        return new CompactionManifest(true, added, replaced);
+    }
+
+    /**
+     * Atomically publishes this manifest; from here on readers see the compacted files only
+     */
+    void commit(Path partition) throws IOException {
+        List<String> lines = new ArrayList<>(1 + added.size() + replaced.size());
+        lines.add(HEADER);
+        added.forEach(name -> lines.add(ADDED + name));
+        replaced.forEach(name -> lines.add(REPLACED + name));
+
+        Path pending = partition.resolve(FILE_NAME + ".pending");
+        Files.write(pending, lines, StandardCharsets.UTF_8);
+        Files.move(pending, partition.resolve(FILE_NAME), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    boolean isCommitted() {
+        return committed;
+    }
+
+    Set<String> replaced() {
+        return replaced;
+    }
+
+    /**
+     * Whether a data file in the partition belongs to its current contents
+     */
+    boolean isLive(String fileName) {
+        if (fileName.startsWith(COMPACTED_PREFIX)) {
+            // Compaction output only counts once committed
+            return committed && added.contains(fileName);
+        }
+        return !replaced.contains(fileName);
+    }
+
+    /**
+     * Data files readers should see in the partition, including events that arrived after compaction
+     */
+    static List<Path> liveDataFiles(Path partition) throws IOException {
+        CompactionManifest manifest = read(partition);
+        return listDataFiles(partition).stream()
+                .filter(file -> manifest.isLive(file.getFileName().toString()))
+                .collect(Collectors.toList());
+    }
+
+    static List<Path> listDataFiles(Path partition) throws IOException {
+        try (Stream<Path> files = Files.list(partition)) {
+            return files
+                    .filter(path -> path.getFileName().toString().endsWith(DATA_FILE_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Set<String> fileNames(Collection<Path> files) {
+        return files.stream()
+                .map(file -> file.getFileName().toString())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
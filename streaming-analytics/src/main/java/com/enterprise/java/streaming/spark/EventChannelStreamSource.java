@@ -0,0 +1,451 @@
+package com.enterprise.java.streaming.spark;
+
+import com.enterprise.java.streaming.ingestion.EventChannel;
+import com.enterprise.java.streaming.model.UserEvent;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder;
+import org.apache.spark.sql.connector.catalog.SupportsRead;
+import org.apache.spark.sql.connector.catalog.Table;
+import org.apache.spark.sql.connector.catalog.TableCapability;
+import org.apache.spark.sql.connector.catalog.TableProvider;
+import org.apache.spark.sql.connector.expressions.Transform;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.apache.spark.sql.connector.read.PartitionReader;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
+import org.apache.spark.sql.connector.read.Scan;
+import org.apache.spark.sql.connector.read.ScanBuilder;
+import org.apache.spark.sql.connector.read.streaming.MicroBatchStream;
+import org.apache.spark.sql.connector.read.streaming.Offset;
+import org.apache.spark.sql.execution.streaming.OffsetSeq;
+import org.apache.spark.sql.execution.streaming.OffsetSeqLog;
+import org.apache.spark.sql.sources.DataSourceRegister;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.Option;
+import scala.Tuple2;
+import scala.collection.immutable.Seq;
+import scala.jdk.javaapi.CollectionConverters;
+
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds Spark streaming queries from a shared in-process {@link EventChannel}.
+ *
+ * Every query gets its own {@link MicroBatchStream} (a stream's offsets can only be
+ * committed by one query); a driver-side pump converts each event to a row once and
+ * appends the same block of rows to all of them. Each append is one offset, and each
+ * block up to a batch's end offset becomes one input partition that carries its rows to
+ * the executor. The pump stops draining the channel while any stream holds more than
+ * the configured number of uncommitted rows, so a slow query backpressures the shared
+ * Kafka consumer.
+ *
+ * A stream created for a checkpoint location continues numbering its offsets after the
+ * last offset logged there, so a restarted query keeps its checkpointed state. Rows of
+ * a batch that was planned but not committed before the restart are not in memory any
+ * more; that batch reruns empty, and the events come back through Kafka because they
+ * are only acknowledged to the channel once every query has committed them.
+ *
+ * Queries find their stream through the {@value #FORMAT} data source, registered in
+ * {@code META-INF/services}, by the stream id option.
+ */
+public class EventChannelStreamSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventChannelStreamSource.class);
+
+    static final String FORMAT = "event-channel";
+    private static final String STREAM_ID_OPTION = "streamId";
+    private static final int MAX_ROWS_PER_BATCH = 5_000;
+    private static final AtomicInteger streamIds = new AtomicInteger();
+    // Streams of every source in this JVM, looked up by the data source when a query starts
+    private static final Map<String, ChannelStream> registry = new ConcurrentHashMap<>();
+
+    private final SparkSession spark;
+    private final EventChannel channel;
+    private final StructType schema;
+    private final long maxBufferedRows;
+    private final List<ChannelStream> streams = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread pumpThread;
+
+    public EventChannelStreamSource(SparkSession spark, EventChannel channel, StructType schema, long maxBufferedRows) {
+        this.spark = spark;
+        this.channel = channel;
+        this.schema = schema;
+        this.maxBufferedRows = maxBufferedRows;
+    }
+
+    /**
+     * Creates a new streaming DataFrame over the channel. Call once per query, before {@link #start()}.
+     *
+     * @param checkpointLocation checkpoint of the query that will read the stream, or null if it has none
+     */
+    public Dataset<Row> newStream(String checkpointLocation) {
+        String streamId = channel.getName() + "-" + streamIds.incrementAndGet();
+        ChannelStream stream = new ChannelStream(schema, this::acknowledgeCommitted);
+        long resumeOffset = lastLoggedOffset(checkpointLocation);
+        if (resumeOffset >= 0) {
+            stream.resumeAfter(resumeOffset);
+            logger.info("🔗 Stream for checkpoint {} resumes after offset {}", checkpointLocation, resumeOffset);
+        }
+        registry.put(streamId, stream);
+        streams.add(stream);
+        return spark.readStream()
+                .format(FORMAT)
+                .option(STREAM_ID_OPTION, streamId)
+                .load();
+    }
+
+    private long lastLoggedOffset(String checkpointLocation) {
+        if (checkpointLocation == null) {
+            return -1;
+        }
+        Option<Tuple2<Object, OffsetSeq>> latest =
+                new OffsetSeqLog(spark, checkpointLocation + "/offsets").getLatest();
+        if (latest.isEmpty()) {
+            return -1;
+        }
+        Seq<Option<Offset>> offsets = latest.get()._2().offsets();
+        if (offsets.size() != 1 || offsets.head().isEmpty()) {
+            throw new IllegalStateException("Checkpoint " + checkpointLocation + " does not belong to a single-source query");
+        }
+        String json = offsets.head().get().json();
+        try {
+            return Long.parseLong(json);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Checkpoint " + checkpointLocation
+                    + " was written by a different source (offset " + json + ")", e);
+        }
+    }
+
+    // Every stream receives every event, so the least committed stream bounds what is processed
+    private void acknowledgeCommitted() {
+        channel.acknowledge(streams.stream().mapToLong(ChannelStream::committedRows).min().orElse(0));
+    }
+
+    public synchronized void start() {
+        if (pumpThread != null) {
+            return;
+        }
+        running = true;
+        pumpThread = new Thread(this::pump, "spark-event-pump");
+        pumpThread.setDaemon(true);
+        pumpThread.start();
+        logger.info("🔗 Spark pump started for channel '{}' feeding {} stream(s)", channel.getName(), streams.size());
+    }
+
+    private void pump() {
+        List<UserEvent> events = new ArrayList<>(MAX_ROWS_PER_BATCH);
+        // Pump thread only: the serializer reuses its output row
+        ExpressionEncoder.Serializer<Row> serializer = ((ExpressionEncoder<Row>) Encoders.row(schema)).createSerializer();
+        try {
+            while (running) {
+                long room = maxBufferedRows - streams.stream().mapToLong(ChannelStream::bufferedRows).max().orElse(0);
+                if (room <= 0) {
+                    // Slowest query is behind: leave events in the channel so ingestion pauses
+                    TimeUnit.MILLISECONDS.sleep(50);
+                    continue;
+                }
+
+                if (channel.drainTo(events, (int) Math.min(room, MAX_ROWS_PER_BATCH)) == 0) {
+                    UserEvent event = channel.poll(100, TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        continue;
+                    }
+                    events.add(event);
+                }
+
+                InternalRow[] rows = new InternalRow[events.size()];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = serializer.apply(toRow(events.get(i))).copy();
+                }
+                for (ChannelStream stream : streams) {
+                    stream.append(rows);
+                }
+                events.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("❌ Spark event pump failed", e);
+        }
+    }
+
+    // Column order follows SparkStreamAnalyzer.USER_EVENT_SCHEMA
+    private static Row toRow(UserEvent event) {
+        return RowFactory.create(
+                event.getUserId(),
+                event.getEventType(),
+                event.getTimestamp() != null ? Timestamp.valueOf(event.getTimestamp()) : null,
+                event.getMetadata() != null ? CollectionConverters.asScala(event.getMetadata()) : null,
+                event.getSessionId(),
+                event.getIpAddress());
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (pumpThread != null) {
+            pumpThread.interrupt();
+            try {
+                pumpThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        registry.values().removeAll(streams);
+    }
+
+    /**
+     * Position in a {@link ChannelStream}: the number of blocks appended. Serialized as a
+     * plain number, the same format the checkpoints of earlier runs hold.
+     */
+    static final class ChannelOffset extends Offset {
+        private final long offset;
+
+        ChannelOffset(long offset) {
+            this.offset = offset;
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        @Override
+        public String json() {
+            return Long.toString(offset);
+        }
+    }
+
+    /**
+     * Micro-batch stream over the blocks appended by the pump, tracking how many of its
+     * rows the query has and has not committed.
+     */
+    static final class ChannelStream implements MicroBatchStream {
+
+        private final StructType schema;
+        private final Runnable onCommit;
+        // Appended blocks not yet committed, in offset order
+        private final Deque<Block> pendingBlocks = new ArrayDeque<>();
+        private long currentOffset = -1;
+        private long bufferedRows;
+        private long committedRows;
+
+        ChannelStream(StructType schema, Runnable onCommit) {
+            this.schema = schema;
+            this.onCommit = onCommit;
+        }
+
+        /**
+         * Continues after an offset from an earlier run, as if everything up to it had been committed.
+         */
+        synchronized void resumeAfter(long offset) {
+            currentOffset = offset;
+        }
+
+        synchronized void append(InternalRow[] rows) {
+            currentOffset++;
+            pendingBlocks.addLast(new Block(currentOffset, rows));
+            bufferedRows += rows.length;
+        }
+
+        synchronized long bufferedRows() {
+            return bufferedRows;
+        }
+
+        synchronized long committedRows() {
+            return committedRows;
+        }
+
+        StructType schema() {
+            return schema;
+        }
+
+        @Override
+        public synchronized Offset latestOffset() {
+            return new ChannelOffset(currentOffset);
+        }
+
+        @Override
+        public Offset initialOffset() {
+            return new ChannelOffset(-1);
+        }
+
+        @Override
+        public Offset deserializeOffset(String json) {
+            return new ChannelOffset(Long.parseLong(json));
+        }
+
+        @Override
+        public synchronized InputPartition[] planInputPartitions(Offset start, Offset end) {
+            long from = ((ChannelOffset) start).offset();
+            long to = ((ChannelOffset) end).offset();
+            // Blocks committed before a restart are gone; their batch reruns without them
+            List<InputPartition> partitions = new ArrayList<>();
+            for (Block block : pendingBlocks) {
+                if (block.offset > from && block.offset <= to) {
+                    partitions.add(new BlockPartition(block.rows));
+                }
+            }
+            return partitions.toArray(new InputPartition[0]);
+        }
+
+        @Override
+        public PartitionReaderFactory createReaderFactory() {
+            return new BlockReaderFactory();
+        }
+
+        @Override
+        public void commit(Offset end) {
+            long committed = ((ChannelOffset) end).offset();
+            synchronized (this) {
+                while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().offset <= committed) {
+                    int rows = pendingBlocks.removeFirst().rows.length;
+                    bufferedRows -= rows;
+                    committedRows += rows;
+                }
+            }
+            // Outside the lock: acknowledging reads the other streams
+            onCommit.run();
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static final class Block {
+        private final long offset;
+        private final InternalRow[] rows;
+
+        private Block(long offset, InternalRow[] rows) {
+            this.offset = offset;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * One appended block, shipped with the task to whichever executor reads it.
+     */
+    static final class BlockPartition implements InputPartition {
+        private final InternalRow[] rows;
+
+        BlockPartition(InternalRow[] rows) {
+            this.rows = rows;
+        }
+    }
+
+    static final class BlockReaderFactory implements PartitionReaderFactory {
+        @Override
+        public PartitionReader<InternalRow> createReader(InputPartition partition) {
+            InternalRow[] rows = ((BlockPartition) partition).rows;
+            return new PartitionReader<>() {
+                private int next;
+
+                @Override
+                public boolean next() {
+                    return next++ < rows.length;
+                }
+
+                @Override
+                public InternalRow get() {
+                    return rows[next - 1];
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+
+    /**
+     * The {@value #FORMAT} data source, resolving the stream id option to a registered stream.
+     * Discovered through {@code META-INF/services}.
+     */
+    public static class Provider implements TableProvider, DataSourceRegister {
+
+        @Override
+        public String shortName() {
+            return FORMAT;
+        }
+
+        @Override
+        public StructType inferSchema(CaseInsensitiveStringMap options) {
+            return lookup(options.get(STREAM_ID_OPTION)).schema();
+        }
+
+        @Override
+        public Table getTable(StructType schema, Transform[] partitioning, Map<String, String> properties) {
+            String streamId = properties.get(STREAM_ID_OPTION);
+            ChannelStream stream = lookup(streamId);
+            return new ChannelTable(streamId, stream);
+        }
+
+        private static ChannelStream lookup(String streamId) {
+            ChannelStream stream = streamId != null ? registry.get(streamId) : null;
+            if (stream == null) {
+                throw new IllegalStateException("No event channel stream registered: " + streamId);
+            }
+            return stream;
+        }
+    }
+
+    private static final class ChannelTable implements Table, SupportsRead {
+        private final String streamId;
+        private final ChannelStream stream;
+
+        private ChannelTable(String streamId, ChannelStream stream) {
+            this.streamId = streamId;
+            this.stream = stream;
+        }
+
+        @Override
+        public String name() {
+            return FORMAT + ":" + streamId;
+        }
+
+        @Override
+        public StructType schema() {
+            return stream.schema();
+        }
+
+        @Override
+        public Set<TableCapability> capabilities() {
+            return EnumSet.of(TableCapability.MICRO_BATCH_READ);
+        }
+
+        @Override
+        public ScanBuilder newScanBuilder(CaseInsensitiveStringMap options) {
+            return () -> new Scan() {
+                @Override
+                public StructType readSchema() {
+                    return stream.schema();
+                }
+
+                @Override
+                public MicroBatchStream toMicroBatchStream(String checkpointLocation) {
+                    return stream;
+                }
+            };
+        }
+    }
+}
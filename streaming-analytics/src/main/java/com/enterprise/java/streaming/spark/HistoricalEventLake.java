@@ -0,0 +1,330 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.api.java.function.VoidFunction2;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.Trigger;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Columnar store of parsed user events for historical analysis.
+ *
+ * Events land continuously as Parquet under {@code event_date=.../event_hour=...}
+ * partitions, sorted by userId within each file so row-group statistics allow
+ * skipping on user filters. Closed hours are periodically compacted into a few
+ * large files. Readers only list the date partitions they ask for and select only the
+ * columns they need, so Spark reads neither other days nor unused column chunks.
+ *
+ * Compaction is published per partition through a {@link CompactionManifest}: readers
+ * see either the original files or the compacted ones, never both. Replaced files are
+ * kept for {@link #REPLACED_FILE_RETENTION} so reads planned before the swap can finish.
+ */
+public class HistoricalEventLake implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalEventLake.class);
+
+    static final String DATE_COLUMN = "event_date";
+    static final String HOUR_COLUMN = "event_hour";
+    static final String[] EVENT_COLUMNS = {"userId", "eventType", "timestamp", "sessionId", "ipAddress", "metadata"};
+
+    private static final Pattern DATE_PARTITION = Pattern.compile(DATE_COLUMN + "=(\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern HOUR_PARTITION = Pattern.compile(HOUR_COLUMN + "=(\\d{1,2})");
+    private static final String BATCH_MARKERS_DIR = "_batches";
+    private static final String COMPACTION_DIR = "_compaction";
+    private static final int RETAINED_BATCH_MARKERS = 100;
+    private static final long TARGET_FILE_BYTES = 128L * 1024 * 1024;
+    // Hours younger than this may still receive late events and are left alone
+    private static final int COMPACTION_DELAY_HOURS = 2;
+    private static final Duration REPLACED_FILE_RETENTION = Duration.ofHours(1);
+
+    // Lake layout: the selected event columns plus the partition columns
+    private static final StructType LAKE_SCHEMA = new StructType()
+            .add("userId", DataTypes.StringType)
+            .add("eventType", DataTypes.StringType)
+            .add("timestamp", DataTypes.TimestampType)
+            .add("sessionId", DataTypes.StringType)
+            .add("ipAddress", DataTypes.StringType)
+            .add("metadata", DataTypes.createMapType(DataTypes.StringType, DataTypes.StringType))
+            .add(DATE_COLUMN, DataTypes.DateType)
+            .add(HOUR_COLUMN, DataTypes.IntegerType);
+
+    private final SparkSession spark;
+    private final Path basePath;
+    private Path batchMarkers;
+    private ScheduledExecutorService compactionScheduler;
+
+    public HistoricalEventLake(SparkSession spark, String basePath) {
+        this.spark = spark;
+        this.basePath = Paths.get(basePath);
+    }
+
+    /**
+     * Starts landing the parsed event stream into the lake, plus hourly compaction.
+     *
+     * Batch ids are only unique within a checkpoint, so the markers that skip replayed
+     * batches are kept per checkpoint directory name.
+     */
+    public StreamingQuery startIngestion(Dataset<Row> userEvents, String checkpointLocation, String triggerInterval)
+            throws TimeoutException {
+        batchMarkers = basePath.resolve(BATCH_MARKERS_DIR)
+                .resolve(checkpointLocation.substring(checkpointLocation.lastIndexOf('/') + 1));
+        StreamingQuery query = userEvents
+                .select(Arrays.stream(EVENT_COLUMNS).map(functions::col).toArray(Column[]::new))
+                .writeStream()
+                .queryName("event_lake_ingestion")
+                .option("checkpointLocation", checkpointLocation)
+                .foreachBatch((VoidFunction2<Dataset<Row>, Long>) this::writeBatch)
+                .trigger(Trigger.ProcessingTime(triggerInterval))
+                .start();
+
+        compactionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-lake-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactionScheduler.scheduleWithFixedDelay(this::compactClosedPartitionsSafely, 1, 60, TimeUnit.MINUTES);
+
+        logger.info("🏞️ Landing user events into Parquet lake at {}", basePath);
+        return query;
+    }
+
+    private void writeBatch(Dataset<Row> events, Long batchId) throws IOException {
+        Path marker = batchMarkers.resolve(String.valueOf(batchId));
+        if (Files.exists(marker)) {
+            // Batch was committed before a restart; skip to avoid duplicate rows
+            return;
+        }
+
+        events
+                .withColumn(DATE_COLUMN, functions.to_date(functions.col("timestamp")))
+                .withColumn(HOUR_COLUMN, functions.hour(functions.col("timestamp")))
+                .repartition(functions.col(DATE_COLUMN), functions.col(HOUR_COLUMN))
+                .sortWithinPartitions("userId", "timestamp")
+                .write()
+                .mode(SaveMode.Append)
+                .partitionBy(DATE_COLUMN, HOUR_COLUMN)
+                .parquet(basePath.toString());
+
+        Files.createDirectories(marker.getParent());
+        Files.createFile(marker);
+        Files.deleteIfExists(marker.resolveSibling(String.valueOf(batchId - RETAINED_BATCH_MARKERS)));
+    }
+
+    /**
+     * Events between the given dates (inclusive), restricted to the requested columns.
+     * Only the matching date partitions and column chunks are read.
+     */
+    public Dataset<Row> readEvents(LocalDate from, LocalDate to, String... columns) {
+        return readEvents(spark, from, to, columns);
+    }
+
+    /**
+     * Same as {@link #readEvents(LocalDate, LocalDate, String...)}, planned in another
+     * session, e.g. one with batch settings.
+     */
+    public Dataset<Row> readEvents(SparkSession session, LocalDate from, LocalDate to, String... columns) {
+        List<String> files;
+        try {
+            files = liveDataFiles(from, to);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list event lake at " + basePath, e);
+        }
+
+        Dataset<Row> events;
+        if (files.isEmpty()) {
+            logger.warn("⚠️ Event lake at {} has no events between {} and {}", basePath, from, to);
+            events = session.createDataFrame(Collections.emptyList(), LAKE_SCHEMA);
+        } else {
+            // Explicit files under basePath keep the partition columns; the manifest decides which
+            events = session.read()
+                    .schema(LAKE_SCHEMA)
+                    .option("basePath", basePath.toString())
+                    .parquet(files.toArray(new String[0]));
+        }
+        events = events
+                .where(functions.col(DATE_COLUMN).between(
+                        functions.lit(java.sql.Date.valueOf(from)),
+                        functions.lit(java.sql.Date.valueOf(to))));
+
+        if (columns.length == 0) {
+            return events;
+        }
+        return events.select(Arrays.stream(columns).map(functions::col).toArray(Column[]::new));
+    }
+
+    private void compactClosedPartitionsSafely() {
+        try {
+            compactClosedPartitions();
+        } catch (Exception e) {
+            logger.error("❌ Event lake compaction failed", e);
+        }
+    }
+
+    private List<String> liveDataFiles(LocalDate from, LocalDate to) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (Path partition : listHourPartitions()) {
+            Matcher dateMatcher = DATE_PARTITION.matcher(partition.getParent().getFileName().toString());
+            if (!dateMatcher.matches()) {
+                continue;
+            }
+            LocalDate date = LocalDate.parse(dateMatcher.group(1));
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                for (Path file : CompactionManifest.liveDataFiles(partition)) {
+                    files.add(file.toString());
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Rewrites every closed hour partition into size-based, userId-sorted files, after
+     * finishing or rolling back whatever an interrupted earlier run left behind.
+     */
+    public void compactClosedPartitions() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(COMPACTION_DELAY_HOURS);
+
+        for (Path partition : listHourPartitions()) {
+            CompactionManifest manifest = recover(partition);
+
+            Matcher dateMatcher = DATE_PARTITION.matcher(partition.getParent().getFileName().toString());
+            Matcher hourMatcher = HOUR_PARTITION.matcher(partition.getFileName().toString());
+            if (!dateMatcher.matches() || !hourMatcher.matches()) {
+                // e.g. the default partition for events without a timestamp
+                continue;
+            }
+
+            LocalDateTime partitionStart = LocalDate.parse(dateMatcher.group(1)).atTime(Integer.parseInt(hourMatcher.group(1)), 0);
+            if (partitionStart.isBefore(cutoff) && !manifest.isCommitted()) {
+                compactPartition(partition);
+            }
+        }
+    }
+
+    /**
+     * Deletes compaction output that was never committed, and replaced files once no read
+     * planned before the swap can still need them.
+     */
+    private CompactionManifest recover(Path partition) throws IOException {
+        CompactionManifest manifest = CompactionManifest.read(partition);
+        Instant retainUntil = manifest.isCommitted()
+                ? Files.getLastModifiedTime(partition.resolve(CompactionManifest.FILE_NAME)).toInstant().plus(REPLACED_FILE_RETENTION)
+                : Instant.MAX;
+
+        for (Path file : CompactionManifest.listDataFiles(partition)) {
+            String name = file.getFileName().toString();
+            boolean orphan = name.startsWith(CompactionManifest.COMPACTED_PREFIX) && !manifest.isLive(name);
+            boolean expired = manifest.replaced().contains(name) && Instant.now().isAfter(retainUntil);
+            if (orphan || expired) {
+                deleteDataFile(file);
+            }
+        }
+        return manifest;
+    }
+
+    private void compactPartition(Path partition) throws IOException {
+        List<Path> dataFiles = CompactionManifest.liveDataFiles(partition);
+        List<Path> compactedFiles = new ArrayList<>();
+        if (dataFiles.size() > 1) {
+            long totalBytes = 0;
+            for (Path file : dataFiles) {
+                totalBytes += Files.size(file);
+            }
+            int targetFiles = (int) Math.max(1, (totalBytes + TARGET_FILE_BYTES - 1) / TARGET_FILE_BYTES);
+
+            Path staging = basePath.resolve(COMPACTION_DIR).resolve(basePath.relativize(partition));
+            spark.read()
+                    .parquet(dataFiles.stream().map(Path::toString).toArray(String[]::new))
+                    .repartition(targetFiles)
+                    .sortWithinPartitions("userId", "timestamp")
+                    .write()
+                    .mode(SaveMode.Overwrite)
+                    .parquet(staging.toString());
+
+            // Moved-in output stays invisible to readers until the manifest lists it
+            String run = UUID.randomUUID().toString().substring(0, 8);
+            for (Path file : CompactionManifest.listDataFiles(staging)) {
+                Path target = partition.resolve(CompactionManifest.COMPACTED_PREFIX + run + "-" + file.getFileName());
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                compactedFiles.add(target);
+            }
+            deleteRecursively(staging);
+        } else {
+            dataFiles = List.of();
+        }
+
+        // Commit point: one rename switches readers from the originals to the compacted files
+        CompactionManifest.of(compactedFiles, dataFiles).commit(partition);
+        if (!dataFiles.isEmpty()) {
+            logger.info("🗜️ Compacted {} files into {} under {}", dataFiles.size(), compactedFiles.size(), basePath.relativize(partition));
+        }
+    }
+
+    private static void deleteDataFile(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling("." + file.getFileName() + ".crc"));
+    }
+
+    private List<Path> listHourPartitions() throws IOException {
+        if (!Files.isDirectory(basePath)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(basePath, 2)) {
+            return paths
+                    .filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().startsWith(HOUR_COLUMN + "="))
+                    .filter(path -> path.getParent().getFileName().toString().startsWith(DATE_COLUMN + "="))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactionScheduler != null) {
+            compactionScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.enterprise.java.streaming.spark;
+
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.streaming.StateOperatorProgress;
+import org.apache.spark.sql.streaming.StreamingQueryListener;
+import org.apache.spark.sql.streaming.StreamingQueryProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds {@link StreamingQueryProgress} of every query in the session into the
+ * {@link StreamingMetricsCollector}.
+ *
+ * Progress events are delivered on Spark's listener bus once per micro-batch, so the
+ * executors' event path is never touched. The primary analytics query additionally
+ * drives the overall event count and throughput; the other queries read the same
+ * events and would count them again. The feature query's state rows, one per user active
+ * within the feature idle timeout, drive the unique users gauge.
+ */
+public class QueryProgressMetricsListener extends StreamingQueryListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryProgressMetricsListener.class);
+
+    private final SparkSession spark;
+    private final StreamingMetricsCollector metricsCollector;
+    private final String primaryQueryName;
+    private final String featureQueryName;
+
+    public QueryProgressMetricsListener(SparkSession spark, StreamingMetricsCollector metricsCollector,
+                                        String primaryQueryName, String featureQueryName) {
+        this.spark = spark;
+        this.metricsCollector = metricsCollector;
+        this.primaryQueryName = primaryQueryName;
+        this.featureQueryName = featureQueryName;
+    }
+
+    @Override
+    public void onQueryStarted(QueryStartedEvent event) {
+        metricsCollector.updateActiveStreams(spark.streams().active().length);
+    }
+
+    @Override
+    public void onQueryProgress(QueryProgressEvent event) {
+        StreamingQueryProgress progress = event.progress();
+        String queryName = progress.name() != null ? progress.name() : progress.id().toString();
+        Long batchDurationMs = progress.durationMs().get("triggerExecution");
+
+        metricsCollector.recordQueryProgress(queryName, progress.numInputRows(), progress.inputRowsPerSecond(),
+                progress.processedRowsPerSecond(), batchDurationMs != null ? batchDurationMs : 0L);
+        if (queryName.equals(primaryQueryName)) {
+            metricsCollector.incrementEventsProcessed(progress.numInputRows());
+            metricsCollector.updateThroughput(Math.round(progress.processedRowsPerSecond()));
+        }
+        if (queryName.equals(featureQueryName)) {
+            long users = 0;
+            for (StateOperatorProgress stateOperator : progress.stateOperators()) {
+                users += stateOperator.numRowsTotal();
+            }
+            metricsCollector.updateUniqueUsers(users);
+        }
+    }
+
+    @Override
+    public void onQueryTerminated(QueryTerminatedEvent event) {
+        if (event.exception().isDefined()) {
+            logger.warn("⚠️ Streaming query {} terminated with error: {}", event.id(), event.exception().get());
+        }
+        // The terminated query is already removed from the active list
+        metricsCollector.updateActiveStreams(spark.streams().active().length);
+    }
+}
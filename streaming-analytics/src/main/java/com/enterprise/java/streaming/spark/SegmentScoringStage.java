@@ -0,0 +1,174 @@
+package com.enterprise.java.streaming.spark;
+
+import com.enterprise.java.streaming.model.UserBehaviorPattern;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.MapFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.ml.PipelineModel;
+import org.apache.spark.ml.Transformer;
+import org.apache.spark.ml.clustering.KMeansModel;
+import org.apache.spark.ml.linalg.Vector;
+import org.apache.spark.ml.linalg.Vectors;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoder;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming inference stage that scores users into behaviour segments.
+ *
+ * Invoked once per micro-batch with the feature rows of users whose activity
+ * changed in that batch, so untouched users are never rescored. Cluster centers
+ * are broadcast once per model version and reused until the trainer swaps in a
+ * new model.
+ */
+public class SegmentScoringStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentScoringStage.class);
+    private static final Encoder<UserBehaviorPattern> PATTERN_ENCODER = Encoders.bean(UserBehaviorPattern.class);
+
+    /**
+     * Receives the scored patterns of a micro-batch.
+     */
+    @FunctionalInterface
+    public interface PatternSink {
+        void emit(long batchId, Dataset<UserBehaviorPattern> patterns);
+    }
+
+    private final SparkSession spark;
+    private final SegmentationModelTrainer modelTrainer;
+    private final PatternSink patternSink;
+    private final double anomalyThreshold;
+
+    private Broadcast<double[][]> broadcastCenters;
+    private long broadcastVersion = -1;
+
+    public SegmentScoringStage(SparkSession spark,
+                               SegmentationModelTrainer modelTrainer,
+                               PatternSink patternSink,
+                               double anomalyThreshold) {
+        this.spark = spark;
+        this.modelTrainer = modelTrainer;
+        this.patternSink = patternSink;
+        this.anomalyThreshold = anomalyThreshold;
+    }
+
+    /**
+     * foreachBatch entry point; {@code changedFeatures} holds one row per user updated in the batch.
+     */
+    public void scoreBatch(Dataset<Row> changedFeatures, Long batchId) {
+        PipelineModel model = modelTrainer.getCurrentModel();
+        if (model == null) {
+            logger.debug("⏳ No segmentation model yet, skipping scoring for batch {}", batchId);
+            return;
+        }
+
+        long version = modelTrainer.getModelVersion();
+        Broadcast<double[][]> centers = centersFor(model, version);
+
+        Dataset<UserBehaviorPattern> patterns = model
+                .transform(changedFeatures.na().fill(0.0))
+                .map(new PatternMapper(centers, version, batchId, anomalyThreshold, LocalDateTime.now()), PATTERN_ENCODER);
+
+        patternSink.emit(batchId, patterns);
+    }
+
+    private synchronized Broadcast<double[][]> centersFor(PipelineModel model, long version) {
+        if (broadcastCenters == null || broadcastVersion != version) {
+            if (broadcastCenters != null) {
+                broadcastCenters.unpersist();
+            }
+            broadcastCenters = JavaSparkContext.fromSparkContext(spark.sparkContext())
+                    .broadcast(extractCenters(model));
+            broadcastVersion = version;
+            logger.info("📡 Broadcast cluster centers for segmentation model v{}", version);
+        }
+        return broadcastCenters;
+    }
+
+    private static double[][] extractCenters(PipelineModel model) {
+        for (Transformer stage : model.stages()) {
+            if (stage instanceof KMeansModel) {
+                Vector[] centers = ((KMeansModel) stage).clusterCenters();
+                double[][] result = new double[centers.length][];
+                for (int i = 0; i < centers.length; i++) {
+                    result[i] = centers[i].toArray();
+                }
+                return result;
+            }
+        }
+        throw new IllegalStateException("Segmentation pipeline has no KMeans stage");
+    }
+
+    /**
+     * Turns a scored feature row into a UserBehaviorPattern.
+     *
+     * Risk is the distance to the assigned center relative to half the gap to the
+     * nearest other center: 0 at the center, 0.5 on the boundary between the two clusters.
+     */
+    static class PatternMapper implements MapFunction<Row, UserBehaviorPattern> {
+        private final Broadcast<double[][]> centers;
+        private final long modelVersion;
+        private final long batchId;
+        private final double anomalyThreshold;
+        private final LocalDateTime scoredAt;
+
+        PatternMapper(Broadcast<double[][]> centers, long modelVersion, long batchId,
+                      double anomalyThreshold, LocalDateTime scoredAt) {
+            this.centers = centers;
+            this.modelVersion = modelVersion;
+            this.batchId = batchId;
+            this.anomalyThreshold = anomalyThreshold;
+            this.scoredAt = scoredAt;
+        }
+
+        @Override
+        public UserBehaviorPattern call(Row row) {
+            String userId = row.getAs("userId");
+            int segment = ((Number) row.getAs("userSegment")).intValue();
+            Vector features = row.getAs("features");
+            double riskScore = riskScore(features.toArray(), segment, centers.value());
+
+            Map<String, Double> featureValues = new HashMap<>();
+            for (String column : SegmentationModelTrainer.FEATURE_COLUMNS) {
+                featureValues.put(column, ((Number) row.getAs(column)).doubleValue());
+            }
+
+            return UserBehaviorPattern.builder()
+                    .userId(userId)
+                    .patternId(userId + ":v" + modelVersion + ":" + batchId)
+                    .patternType(riskScore >= anomalyThreshold ? "SUSPICIOUS" : "NORMAL")
+                    .confidence(1.0 - riskScore)
+                    .timestamp(scoredAt)
+                    .features(featureValues)
+                    .userSegment("segment-" + segment)
+                    .riskScore(riskScore)
+                    .build();
+        }
+
+        static double riskScore(double[] point, int segment, double[][] centers) {
+            double distance = Math.sqrt(Vectors.sqdist(Vectors.dense(point), Vectors.dense(centers[segment])));
+
+            double nearestOther = Double.MAX_VALUE;
+            for (int i = 0; i < centers.length; i++) {
+                if (i != segment) {
+                    nearestOther = Math.min(nearestOther,
+                            Math.sqrt(Vectors.sqdist(Vectors.dense(centers[i]), Vectors.dense(centers[segment]))));
+                }
+            }
+            if (nearestOther == Double.MAX_VALUE || nearestOther == 0.0) {
+                return 0.0;
+            }
+
+            double halfGap = nearestOther / 2.0;
+            return distance / (distance + halfGap);
+        }
+    }
+}
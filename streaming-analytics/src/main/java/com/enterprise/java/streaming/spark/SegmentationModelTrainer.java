@@ -0,0 +1,304 @@
+package com.enterprise.java.streaming.spark;
+
+import com.enterprise.java.streaming.metrics.StreamingMetricsCollector;
+import org.apache.spark.ml.Pipeline;
+import org.apache.spark.ml.PipelineModel;
+import org.apache.spark.ml.PipelineStage;
+import org.apache.spark.ml.clustering.KMeans;
+import org.apache.spark.ml.feature.VectorAssembler;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Background trainer for the K-Means user segmentation model.
+ *
+ * Periodically fits the VectorAssembler + KMeans pipeline on a bounded snapshot
+ * of per-user features, saves it under a versioned directory ({@code v1}, {@code v2}, ...)
+ * and swaps it in for streaming inference. Training runs on its own thread and in a
+ * dedicated FAIR scheduler pool, so it never blocks the streaming queries.
+ *
+ * New versions are numbered after the highest directory on disk, whether or not it could
+ * be loaded, and are written to a {@code v<n>.tmp} staging directory first; staging
+ * directories left by a failed or interrupted save are removed on start and on failure.
+ */
+public class SegmentationModelTrainer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentationModelTrainer.class);
+
+    static final String[] FEATURE_COLUMNS = {"totalEvents", "sessions", "avgActiveHour", "hourVariability", "registrations", "logins", "searches"};
+    static final String SCHEDULER_POOL = "model-training";
+
+    private static final Pattern VERSION_DIR = Pattern.compile("v(\\d+)");
+    private static final Pattern STAGING_DIR = Pattern.compile("v\\d+\\.tmp");
+    private static final int RETAINED_VERSIONS = 3;
+
+    private final SparkSession spark;
+    private final Supplier<Dataset<Row>> featureSnapshot;
+    private final Path modelDirectory;
+    private final Duration retrainInterval;
+    private final int maxSnapshotRows;
+    private final int clusterCount;
+    private final StreamingMetricsCollector metricsCollector;
+
+    private final AtomicReference<PipelineModel> currentModel = new AtomicReference<>();
+    private final AtomicLong modelVersion = new AtomicLong(0);
+    private volatile long lastTrainingDurationMs = -1;
+    private ScheduledExecutorService scheduler;
+
+    public SegmentationModelTrainer(SparkSession spark,
+                                    Supplier<Dataset<Row>> featureSnapshot,
+                                    String modelDirectory,
+                                    Duration retrainInterval,
+                                    int maxSnapshotRows,
+                                    int clusterCount,
+                                    StreamingMetricsCollector metricsCollector) {
+        this.spark = spark;
+        this.featureSnapshot = featureSnapshot;
+        this.modelDirectory = Paths.get(modelDirectory);
+        this.retrainInterval = retrainInterval;
+        this.maxSnapshotRows = maxSnapshotRows;
+        this.clusterCount = clusterCount;
+        this.metricsCollector = metricsCollector;
+    }
+
+    /**
+     * Loads the newest persisted model, if any, and schedules periodic retraining.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        deleteStagingDirectories();
+        loadLatestModel();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spark-model-trainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Fixed delay: a slow fit postpones the next run instead of overlapping it
+        scheduler.scheduleWithFixedDelay(this::retrainSafely,
+                retrainInterval.toMillis(), retrainInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        logger.info("🧠 Model retraining scheduled every {} (snapshot limit {} users)", retrainInterval, maxSnapshotRows);
+    }
+
+    Pipeline buildPipeline() {
+        VectorAssembler assembler = new VectorAssembler()
+                .setInputCols(FEATURE_COLUMNS)
+                .setOutputCol("features")
+                .setHandleInvalid("skip");
+
+        // K-Means clustering for user segmentation
+        KMeans kmeans = new KMeans()
+                .setK(clusterCount)
+                .setSeed(1L)
+                .setFeaturesCol("features")
+                .setPredictionCol("userSegment");
+
+        return new Pipeline().setStages(new PipelineStage[]{assembler, kmeans});
+    }
+
+    private void retrainSafely() {
+        try {
+            retrain();
+        } catch (Exception e) {
+            // Keep serving the previous model; the next scheduled run retries
+            logger.error("❌ Model retraining failed, keeping model version {}", modelVersion.get(), e);
+        }
+    }
+
+    /**
+     * Fits a new model on the current feature snapshot and swaps it in.
+     *
+     * @return true if a new model version was published
+     */
+    public boolean retrain() throws IOException {
+        spark.sparkContext().setLocalProperty("spark.scheduler.pool", SCHEDULER_POOL);
+
+        Dataset<Row> snapshot = featureSnapshot.get()
+                .limit(maxSnapshotRows)
+                .na().fill(0.0)
+                .cache();
+        try {
+            long rows = snapshot.count();
+            if (rows < clusterCount) {
+                logger.info("⏭️ Skipping model retraining: {} users in snapshot, need at least {}", rows, clusterCount);
+                return false;
+            }
+
+            long startNanos = System.nanoTime();
+            PipelineModel model = buildPipeline().fit(snapshot);
+            long version = nextVersion();
+            persist(model, version);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            currentModel.set(model);
+            modelVersion.set(version);
+            lastTrainingDurationMs = durationMs;
+            if (metricsCollector != null) {
+                metricsCollector.recordModelTraining(durationMs, version);
+            }
+
+            logger.info("✅ Segmentation model v{} trained on {} users in {} ms", version, rows, durationMs);
+            pruneOldVersions();
+            return true;
+        } finally {
+            snapshot.unpersist();
+        }
+    }
+
+    /**
+     * One past the highest version on disk or in memory, so an unloadable newest directory
+     * is never targeted again.
+     */
+    private long nextVersion() {
+        List<Path> versions = listVersions();
+        long newestOnDisk = versions.isEmpty() ? 0 : versionOf(versions.get(versions.size() - 1));
+        return Math.max(newestOnDisk, modelVersion.get()) + 1;
+    }
+
+    private void persist(PipelineModel model, long version) throws IOException {
+        Files.createDirectories(modelDirectory);
+        Path staging = modelDirectory.resolve("v" + version + ".tmp");
+        Path target = modelDirectory.resolve("v" + version);
+
+        try {
+            model.write().overwrite().save(staging.toString());
+            // Readers only ever see complete model directories
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (Files.exists(staging)) {
+                deleteRecursively(staging);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Serves the newest version that loads, falling back to older ones.
+     */
+    private void loadLatestModel() {
+        List<Path> versions = listVersions();
+        if (versions.isEmpty()) {
+            logger.info("📭 No persisted segmentation model under {}", modelDirectory);
+            return;
+        }
+
+        for (int i = versions.size() - 1; i >= 0; i--) {
+            Path version = versions.get(i);
+            try {
+                currentModel.set(PipelineModel.load(version.toString()));
+                modelVersion.set(versionOf(version));
+                if (metricsCollector != null) {
+                    metricsCollector.recordModelTraining(0, modelVersion.get());
+                }
+                logger.info("📦 Loaded segmentation model {} from {}", version.getFileName(), modelDirectory);
+                return;
+            } catch (Exception e) {
+                logger.warn("⚠️ Could not load segmentation model from {}", version, e);
+            }
+        }
+    }
+
+    private void deleteStagingDirectories() {
+        if (!Files.isDirectory(modelDirectory)) {
+            return;
+        }
+        try (Stream<Path> children = Files.list(modelDirectory)) {
+            children.filter(path -> STAGING_DIR.matcher(path.getFileName().toString()).matches())
+                    .forEach(staging -> {
+                        logger.info("🧹 Removing leftover model staging directory {}", staging.getFileName());
+                        deleteRecursively(staging);
+                    });
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not list model directory {}", modelDirectory, e);
+        }
+    }
+
+    private void pruneOldVersions() {
+        List<Path> versions = listVersions();
+        for (int i = 0; i < versions.size() - RETAINED_VERSIONS; i++) {
+            deleteRecursively(versions.get(i));
+        }
+    }
+
+    private List<Path> listVersions() {
+        if (!Files.isDirectory(modelDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(modelDirectory)) {
+            return children
+                    .filter(path -> VERSION_DIR.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(SegmentationModelTrainer::versionOf))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long versionOf(Path path) {
+        Matcher matcher = VERSION_DIR.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static void deleteRecursively(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    logger.warn("⚠️ Could not delete {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not delete model directory {}", root, e);
+        }
+    }
+
+    /**
+     * Model currently used for inference, or null before the first successful training.
+     */
+    public PipelineModel getCurrentModel() {
+        return currentModel.get();
+    }
+
+    public long getModelVersion() {
+        return modelVersion.get();
+    }
+
+    public long getLastTrainingDurationMs() {
+        return lastTrainingDurationMs;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
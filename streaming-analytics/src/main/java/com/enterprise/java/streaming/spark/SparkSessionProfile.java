@@ -0,0 +1,288 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.SparkConf;
+
+/**
+ * Session-level tuning profile for the analytics SparkSession.
+ *
+ * Replaces the hard-coded local[*] / /tmp setup with configurable master and paths,
+ * plus the memory and serialization layout: Kryo with pre-registered classes, off-heap
+ * Tungsten memory, RocksDB-backed streaming state and a shuffle partition count sized
+ * from the available cores.
+ *
+ * With RocksDB, changelog checkpointing uploads only the changed state rows per
+ * micro-batch instead of a full snapshot, and the optional memory bound caps the
+ * native block cache and memtables shared by all state store instances.
+ */
+public class SparkSessionProfile {
+
+    /**
+     * Streaming state store implementation.
+     */
+    public enum StateStore {
+        HDFS,    // Spark default: state held on the JVM heap, snapshotted to the checkpoint
+        ROCKSDB  // State held in native RocksDB memory, off the GC-managed heap
+    }
+
+    private static final String ROCKSDB_PROVIDER =
+            "org.apache.spark.sql.execution.streaming.state.RocksDBStateStoreProvider";
+    private static final String ROCKSDB_CONF_PREFIX = "spark.sql.streaming.stateStore.rocksdb.";
+
+    private final String appName;
+    private final String master;
+    private final String checkpointLocation;
+    private final String warehouseDir;
+    private final boolean kryoRegistrationRequired;
+    private final boolean offHeapEnabled;
+    private final String offHeapSize;
+    private final StateStore stateStore;
+    private final boolean changelogCheckpointing;
+    private final Long stateStoreMemoryMb;
+    private final int partitionsPerCore;
+    private final Integer shufflePartitions;
+
+    private SparkSessionProfile(Builder builder) {
+        this.appName = builder.appName;
+        this.master = builder.master;
+        this.checkpointLocation = builder.checkpointLocation;
+        this.warehouseDir = builder.warehouseDir;
+        this.kryoRegistrationRequired = builder.kryoRegistrationRequired;
+        this.offHeapEnabled = builder.offHeapEnabled;
+        this.offHeapSize = builder.offHeapSize;
+        this.stateStore = builder.stateStore;
+        this.changelogCheckpointing = builder.changelogCheckpointing;
+        this.stateStoreMemoryMb = builder.stateStoreMemoryMb;
+        this.partitionsPerCore = builder.partitionsPerCore;
+        this.shufflePartitions = builder.shufflePartitions;
+    }
+
+    public static SparkSessionProfile defaults() {
+        return builder().build();
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String appName = "Enterprise-Streaming-Analytics";
+        private String master = "local[*]";
+        private String checkpointLocation = "/tmp/spark-checkpoint";
+        private String warehouseDir = "/tmp/spark-warehouse";
+        private boolean kryoRegistrationRequired = true;
+        private boolean offHeapEnabled = true;
+        private String offHeapSize = "1g";
+        private StateStore stateStore = StateStore.ROCKSDB;
+        private boolean changelogCheckpointing = true;
+        private Long stateStoreMemoryMb;
+        private int partitionsPerCore = 2;
+        private Integer shufflePartitions;
+
+        public Builder appName(String appName) {
+            this.appName = appName;
+            return this;
+        }
+
+        public Builder master(String master) {
+            this.master = master;
+            return this;
+        }
+
+        public Builder checkpointLocation(String checkpointLocation) {
+            this.checkpointLocation = checkpointLocation;
+            return this;
+        }
+
+        public Builder warehouseDir(String warehouseDir) {
+            this.warehouseDir = warehouseDir;
+            return this;
+        }
+
+        /**
+         * Fail tasks that serialize a class missing from {@link AnalyticsKryoRegistrator}. On by
+         * default, so every class is written as a registered ID; KryoRegistrationTests runs the
+         * streaming and batch paths with it to catch missing registrations before deployment.
+         */
+        public Builder kryoRegistrationRequired(boolean kryoRegistrationRequired) {
+            this.kryoRegistrationRequired = kryoRegistrationRequired;
+            return this;
+        }
+
+        public Builder offHeapEnabled(boolean offHeapEnabled) {
+            this.offHeapEnabled = offHeapEnabled;
+            return this;
+        }
+
+        public Builder offHeapSize(String offHeapSize) {
+            this.offHeapSize = offHeapSize;
+            return this;
+        }
+
+        public Builder stateStore(StateStore stateStore) {
+            this.stateStore = stateStore;
+            return this;
+        }
+
+        /**
+         * Checkpoint RocksDB state as per-batch changelogs; ignored for the HDFS store.
+         */
+        public Builder changelogCheckpointing(boolean changelogCheckpointing) {
+            this.changelogCheckpointing = changelogCheckpointing;
+            return this;
+        }
+
+        /**
+         * Upper bound for RocksDB native memory across all state stores; null leaves it unbounded.
+         */
+        public Builder stateStoreMemoryMb(Long stateStoreMemoryMb) {
+            this.stateStoreMemoryMb = stateStoreMemoryMb;
+            return this;
+        }
+
+        public Builder partitionsPerCore(int partitionsPerCore) {
+            this.partitionsPerCore = partitionsPerCore;
+            return this;
+        }
+
+        /**
+         * Fixed shuffle partition count; overrides the core-based sizing.
+         */
+        public Builder shufflePartitions(Integer shufflePartitions) {
+            this.shufflePartitions = shufflePartitions;
+            return this;
+        }
+
+        public SparkSessionProfile build() {
+            if (partitionsPerCore < 1) {
+                throw new IllegalArgumentException("partitionsPerCore must be at least 1");
+            }
+            if (shufflePartitions != null && shufflePartitions <= 0) {
+                throw new IllegalArgumentException("shufflePartitions must be positive");
+            }
+            if (stateStoreMemoryMb != null && stateStoreMemoryMb <= 0) {
+                throw new IllegalArgumentException("stateStoreMemoryMb must be positive");
+            }
+            return new SparkSessionProfile(this);
+        }
+    }
+
+    /**
+     * Builds the SparkConf for this profile.
+     */
+    public SparkConf toSparkConf() {
+        SparkConf conf = new SparkConf()
+                .setAppName(appName)
+                .setMaster(master)
+                .set("spark.sql.adaptive.enabled", "true")
+                .set("spark.sql.adaptive.coalescePartitions.enabled", "true")
+                .set("spark.sql.shuffle.partitions", String.valueOf(resolveShufflePartitions()))
+                .set("spark.sql.streaming.checkpointLocation", checkpointLocation)
+                .set("spark.sql.warehouse.dir", warehouseDir)
+                // Lets model training share executors with streaming instead of queueing behind it
+                .set("spark.scheduler.mode", "FAIR");
+
+        conf.set("spark.serializer", "org.apache.spark.serializer.KryoSerializer")
+                .set("spark.kryo.registrator", AnalyticsKryoRegistrator.class.getName())
+                .set("spark.kryo.registrationRequired", String.valueOf(kryoRegistrationRequired));
+
+        if (offHeapEnabled) {
+            conf.set("spark.memory.offHeap.enabled", "true")
+                    .set("spark.memory.offHeap.size", offHeapSize);
+        }
+
+        if (stateStore == StateStore.ROCKSDB) {
+            conf.set("spark.sql.streaming.stateStore.providerClass", ROCKSDB_PROVIDER)
+                    .set(ROCKSDB_CONF_PREFIX + "changelogCheckpointing.enabled", String.valueOf(changelogCheckpointing));
+            if (stateStoreMemoryMb != null) {
+                conf.set(ROCKSDB_CONF_PREFIX + "boundedMemoryUsage", "true")
+                        .set(ROCKSDB_CONF_PREFIX + "maxMemoryUsageMB", String.valueOf(stateStoreMemoryMb));
+            }
+        }
+
+        return conf;
+    }
+
+    /**
+     * Explicit partition count, or cores x partitionsPerCore. For local masters the core
+     * count is the thread count in {@code local[n]}, or all available processors; cluster
+     * masters should set an explicit count since only the driver's cores are visible here.
+     */
+    int resolveShufflePartitions() {
+        if (shufflePartitions != null) {
+            return shufflePartitions;
+        }
+        return Math.max(1, coreCount() * partitionsPerCore);
+    }
+
+    private int coreCount() {
+        String prefix = "local[";
+        if (master.startsWith(prefix) && master.endsWith("]")) {
+            String threads = master.substring(prefix.length(), master.length() - 1).split(",")[0].trim();
+            if (!"*".equals(threads)) {
+                try {
+                    return Integer.parseInt(threads);
+                } catch (NumberFormatException e) {
+                    // Fall through to the processor count
+                }
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    public String getMaster() {
+        return master;
+    }
+
+    public String getCheckpointLocation() {
+        return checkpointLocation;
+    }
+
+    public String getWarehouseDir() {
+        return warehouseDir;
+    }
+
+    public boolean isKryoRegistrationRequired() {
+        return kryoRegistrationRequired;
+    }
+
+    public boolean isOffHeapEnabled() {
+        return offHeapEnabled;
+    }
+
+    public String getOffHeapSize() {
+        return offHeapSize;
+    }
+
+    public StateStore getStateStore() {
+        return stateStore;
+    }
+
+    public boolean isChangelogCheckpointing() {
+        return changelogCheckpointing;
+    }
+
+    public Long getStateStoreMemoryMb() {
+        return stateStoreMemoryMb;
+    }
+
+    @Override
+    public String toString() {
+        return "SparkSessionProfile{" +
+                "master='" + master + '\'' +
+                ", shufflePartitions=" + resolveShufflePartitions() +
+                ", kryoRegistrationRequired=" + kryoRegistrationRequired +
+                ", offHeap=" + (offHeapEnabled ? offHeapSize : "disabled") +
+                ", stateStore=" + stateStore +
+                (stateStore == StateStore.ROCKSDB
+                        ? ", changelogCheckpointing=" + changelogCheckpointing +
+                          ", stateStoreMemoryMb=" + (stateStoreMemoryMb != null ? stateStoreMemoryMb : "unbounded")
+                        : "") +
+                ", checkpointLocation='" + checkpointLocation + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,181 @@
+package com.enterprise.java.streaming.spark;
+
+import java.util.Objects;
+
+/**
+ * Output configuration for the Spark analytics query.
+ *
+ * Controls where windowed analytics are written and the knobs that trade
+ * latency against throughput: trigger interval, per-trigger Kafka intake,
+ * shuffle partition count and continuous processing.
+ */
+public class StreamingSinkConfig {
+
+    /**
+     * Destination for the analytics stream.
+     */
+    public enum SinkMode {
+        CONSOLE, // Development output, previous default behaviour
+        KAFKA,   // Production sink to the analytics-insights topic
+        FILE     // Local JSON files, used for tests without a broker
+    }
+
+    private final SinkMode sinkMode;
+    private final String outputTopic;
+    private final String outputPath;
+    private final String checkpointLocation;
+    private final String triggerInterval;
+    private final boolean continuousProcessing;
+    private final Long maxOffsetsPerTrigger;
+    private final Integer shufflePartitions;
+    private final String eventLakePath;
+
+    private StreamingSinkConfig(Builder builder) {
+        this.sinkMode = builder.sinkMode;
+        this.outputTopic = builder.outputTopic;
+        this.outputPath = builder.outputPath;
+        this.checkpointLocation = builder.checkpointLocation;
+        this.triggerInterval = builder.triggerInterval;
+        this.continuousProcessing = builder.continuousProcessing;
+        this.maxOffsetsPerTrigger = builder.maxOffsetsPerTrigger;
+        this.shufflePartitions = builder.shufflePartitions;
+        this.eventLakePath = builder.eventLakePath;
+    }
+
+    /**
+     * Console output with a 30 second micro-batch, matching the original behaviour.
+     */
+    public static StreamingSinkConfig defaults() {
+        return builder().build();
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private SinkMode sinkMode = SinkMode.CONSOLE;
+        private String outputTopic = "analytics-insights";
+        private String outputPath = "/tmp/spark-analytics-insights";
+        private String checkpointLocation = "/tmp/spark-checkpoint/analytics-insights";
+        private String triggerInterval = "30 seconds";
+        private boolean continuousProcessing = false;
+        private Long maxOffsetsPerTrigger;
+        private Integer shufflePartitions;
+        private String eventLakePath = "/tmp/spark-event-lake";
+
+        public Builder sinkMode(SinkMode sinkMode) {
+            this.sinkMode = sinkMode;
+            return this;
+        }
+
+        public Builder outputTopic(String outputTopic) {
+            this.outputTopic = outputTopic;
+            return this;
+        }
+
+        public Builder outputPath(String outputPath) {
+            this.outputPath = outputPath;
+            return this;
+        }
+
+        public Builder checkpointLocation(String checkpointLocation) {
+            this.checkpointLocation = checkpointLocation;
+            return this;
+        }
+
+        public Builder triggerInterval(String triggerInterval) {
+            this.triggerInterval = triggerInterval;
+            return this;
+        }
+
+        public Builder continuousProcessing(boolean continuousProcessing) {
+            this.continuousProcessing = continuousProcessing;
+            return this;
+        }
+
+        public Builder maxOffsetsPerTrigger(Long maxOffsetsPerTrigger) {
+            this.maxOffsetsPerTrigger = maxOffsetsPerTrigger;
+            return this;
+        }
+
+        public Builder shufflePartitions(Integer shufflePartitions) {
+            this.shufflePartitions = shufflePartitions;
+            return this;
+        }
+
+        /**
+         * Root of the Parquet event lake; null disables landing events for historical analysis.
+         */
+        public Builder eventLakePath(String eventLakePath) {
+            this.eventLakePath = eventLakePath;
+            return this;
+        }
+
+        public StreamingSinkConfig build() {
+            Objects.requireNonNull(sinkMode, "sinkMode");
+            Objects.requireNonNull(triggerInterval, "triggerInterval");
+            if (continuousProcessing && sinkMode == SinkMode.FILE) {
+                throw new IllegalArgumentException("File sink does not support continuous processing");
+            }
+            if (maxOffsetsPerTrigger != null && maxOffsetsPerTrigger <= 0) {
+                throw new IllegalArgumentException("maxOffsetsPerTrigger must be positive");
+            }
+            if (shufflePartitions != null && shufflePartitions <= 0) {
+                throw new IllegalArgumentException("shufflePartitions must be positive");
+            }
+            return new StreamingSinkConfig(this);
+        }
+    }
+
+    public SinkMode getSinkMode() {
+        return sinkMode;
+    }
+
+    public String getOutputTopic() {
+        return outputTopic;
+    }
+
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    public String getCheckpointLocation() {
+        return checkpointLocation;
+    }
+
+    public String getTriggerInterval() {
+        return triggerInterval;
+    }
+
+    public boolean isContinuousProcessing() {
+        return continuousProcessing;
+    }
+
+    public Long getMaxOffsetsPerTrigger() {
+        return maxOffsetsPerTrigger;
+    }
+
+    public Integer getShufflePartitions() {
+        return shufflePartitions;
+    }
+
+    public String getEventLakePath() {
+        return eventLakePath;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingSinkConfig{" +
+                "sinkMode=" + sinkMode +
+                ", outputTopic='" + outputTopic + '\'' +
+                ", outputPath='" + outputPath + '\'' +
+                ", triggerInterval='" + triggerInterval + '\'' +
+                ", continuousProcessing=" + continuousProcessing +
+                ", maxOffsetsPerTrigger=" + maxOffsetsPerTrigger +
+                ", shufflePartitions=" + shufflePartitions +
+                ", eventLakePath='" + eventLakePath + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,422 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.api.java.function.FlatMapGroupsWithStateFunction;
+import org.apache.spark.api.java.function.MapFunction;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoder;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.expressions.Window;
+import org.apache.spark.sql.expressions.WindowSpec;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.streaming.GroupState;
+import org.apache.spark.sql.streaming.GroupStateTimeout;
+import org.apache.spark.sql.streaming.OutputMode;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Incremental per-user feature store for the segmentation model.
+ *
+ * Keeps one small state object per user in the streaming state store (and thus in the
+ * query checkpoint): event-type counters, a bounded set of session IDs and Welford
+ * running mean/variance of the active hour. Users idle for longer than the timeout are
+ * evicted and emitted once as tombstones.
+ *
+ * Training reads the features as a regular batch table. Each micro-batch only writes
+ * its own changed rows as Parquet under the storage directory; they are folded into the
+ * snapshot (an O(all users) rewrite) when the snapshot is read, at most once per merge
+ * interval, or when too many batches are pending. The view therefore lags the state
+ * store by up to the merge interval.
+ *
+ * Snapshots are named after the last batch they include, so a restarted driver loads
+ * the newest complete one plus the batches written after it and picks up where the
+ * state store left off. Directories are written under a .tmp name and moved into place.
+ */
+public class UserFeatureStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserFeatureStore.class);
+
+    private static final int MAX_TRACKED_SESSIONS = 1024;
+    private static final Encoder<UserFeatures> FEATURES_ENCODER = Encoders.bean(UserFeatures.class);
+    private static final Encoder<FeatureState> STATE_ENCODER = Encoders.kryo(FeatureState.class);
+    // Bounds the number of batch directories read at merge time
+    private static final int MAX_PENDING_BATCHES = 64;
+    private static final String BATCH_ID_COLUMN = "_batchId";
+    private static final StructType PENDING_SCHEMA = FEATURES_ENCODER.schema().add(BATCH_ID_COLUMN, DataTypes.LongType);
+
+    private static final String PENDING_DIR = "pending";
+    private static final Pattern BATCH_DIR = Pattern.compile("batch-(\\d+)");
+    private static final Pattern SNAPSHOT_DIR = Pattern.compile("snapshot-(\\d+)");
+    private static final String STAGING_SUFFIX = ".tmp";
+    private static final Pattern STAGING_DIR = Pattern.compile(".+" + Pattern.quote(STAGING_SUFFIX));
+    // The previous snapshot stays readable for a training run that planned against it
+    private static final int RETAINED_SNAPSHOTS = 2;
+
+    private final SparkSession spark;
+    private final String snapshotView;
+    private final Path storageDirectory;
+    private final Path pendingDirectory;
+    private final Duration idleTimeout;
+    private final long mergeIntervalNanos;
+    private final TreeSet<Long> pendingBatches = new TreeSet<>();
+    private Dataset<Row> snapshot;
+    private long snapshotBatchId = -1;
+    private long lastMergeNanos = System.nanoTime();
+
+    /**
+     * @param storageLocation local directory for pending batches and snapshots, normally
+     *                        under the feature query's checkpoint so both are reset together
+     */
+    public UserFeatureStore(SparkSession spark, String snapshotView, String storageLocation,
+                            Duration idleTimeout, Duration mergeInterval) {
+        if (mergeInterval.isNegative()) {
+            throw new IllegalArgumentException("Merge interval must not be negative: " + mergeInterval);
+        }
+        this.spark = spark;
+        this.snapshotView = snapshotView;
+        this.storageDirectory = Paths.get(storageLocation);
+        this.pendingDirectory = storageDirectory.resolve(PENDING_DIR);
+        this.idleTimeout = idleTimeout;
+        this.mergeIntervalNanos = mergeInterval.toNanos();
+        recover();
+    }
+
+    /**
+     * Streaming feature updates: one row per user changed in the micro-batch,
+     * plus tombstone rows ({@code expired = true}) for evicted users.
+     */
+    public Dataset<Row> updates(Dataset<Row> userEvents) {
+        return userEvents
+                .groupByKey((MapFunction<Row, String>) row -> row.getAs("userId"), Encoders.STRING())
+                .flatMapGroupsWithState(
+                        new FeatureUpdateFunction(idleTimeout.toMillis()),
+                        OutputMode.Update(),
+                        STATE_ENCODER,
+                        FEATURES_ENCODER,
+                        GroupStateTimeout.ProcessingTimeTimeout())
+                .toDF();
+    }
+
+    /**
+     * Records one micro-batch of updates. Runs on the driver from foreachBatch; only the
+     * batch's changed rows are written unless a merge is due. A batch replayed after a
+     * restart is already on disk and skipped.
+     */
+    public synchronized void applyBatch(Dataset<Row> updates, long batchId) {
+        if (batchId <= snapshotBatchId || pendingBatches.contains(batchId)) {
+            logger.debug("⏭️ Feature batch {} already stored", batchId);
+            return;
+        }
+
+        writeAtomically(updates.withColumn(BATCH_ID_COLUMN, functions.lit(batchId)),
+                batchDirectory(batchId));
+        pendingBatches.add(batchId);
+
+        if (pendingBatches.size() >= MAX_PENDING_BATCHES || System.nanoTime() - lastMergeNanos >= mergeIntervalNanos) {
+            merge();
+        }
+    }
+
+    /**
+     * Latest features of every active user, as a batch Dataset.
+     */
+    public synchronized Dataset<Row> snapshot() {
+        merge();
+        return snapshot;
+    }
+
+    private void merge() {
+        lastMergeNanos = System.nanoTime();
+        if (pendingBatches.isEmpty()) {
+            return;
+        }
+
+        // A user changed in several pending batches keeps only its newest row
+        Dataset<Row> changes = spark.read()
+                .schema(PENDING_SCHEMA)
+                .parquet(pendingBatches.stream().map(batchId -> batchDirectory(batchId).toString()).toArray(String[]::new));
+        WindowSpec newestFirst = Window.partitionBy("userId").orderBy(functions.col(BATCH_ID_COLUMN).desc());
+        Dataset<Row> latest = changes
+                .withColumn("_rank", functions.row_number().over(newestFirst))
+                .filter(functions.col("_rank").equalTo(1))
+                .drop("_rank", BATCH_ID_COLUMN);
+
+        Dataset<Row> changedUsers = latest.select("userId");
+        Dataset<Row> merged = snapshot
+                .join(changedUsers, snapshot.col("userId").equalTo(changedUsers.col("userId")), "left_anti")
+                .unionByName(latest.filter(functions.not(functions.col("expired"))));
+
+        // Reading the written snapshot back truncates the lineage to a plain file scan
+        long mergedBatchId = pendingBatches.last();
+        Path target = storageDirectory.resolve("snapshot-" + mergedBatchId);
+        writeAtomically(merged, target);
+        useSnapshot(target, mergedBatchId);
+
+        logger.debug("🗂️ Feature snapshot merged {} pending batches", pendingBatches.size());
+        pendingBatches.forEach(batchId -> deleteRecursively(batchDirectory(batchId)));
+        pendingBatches.clear();
+
+        List<Path> snapshots = list(storageDirectory, SNAPSHOT_DIR);
+        for (int i = 0; i < snapshots.size() - RETAINED_SNAPSHOTS; i++) {
+            deleteRecursively(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Loads the newest snapshot and the batches written after it, dropping staging
+     * directories and batches the snapshot already includes.
+     */
+    private void recover() {
+        for (Path parent : List.of(storageDirectory, pendingDirectory)) {
+            for (Path staging : list(parent, STAGING_DIR)) {
+                deleteRecursively(staging);
+            }
+        }
+
+        List<Path> snapshots = list(storageDirectory, SNAPSHOT_DIR);
+        if (snapshots.isEmpty()) {
+            snapshot = spark.createDataFrame(Collections.emptyList(), FEATURES_ENCODER.schema());
+            snapshot.createOrReplaceTempView(snapshotView);
+        } else {
+            Path newest = snapshots.get(snapshots.size() - 1);
+            useSnapshot(newest, idOf(newest, SNAPSHOT_DIR));
+        }
+
+        for (Path batch : list(pendingDirectory, BATCH_DIR)) {
+            long batchId = idOf(batch, BATCH_DIR);
+            if (batchId <= snapshotBatchId) {
+                deleteRecursively(batch);
+            } else {
+                pendingBatches.add(batchId);
+            }
+        }
+
+        if (snapshotBatchId >= 0 || !pendingBatches.isEmpty()) {
+            logger.info("🗂️ Restored feature snapshot through batch {} with {} pending batches from {}",
+                    snapshotBatchId, pendingBatches.size(), storageDirectory);
+        }
+    }
+
+    private void useSnapshot(Path directory, long batchId) {
+        snapshot = spark.read().schema(FEATURES_ENCODER.schema()).parquet(directory.toString());
+        snapshot.createOrReplaceTempView(snapshotView);
+        snapshotBatchId = batchId;
+    }
+
+    private Path batchDirectory(long batchId) {
+        return pendingDirectory.resolve("batch-" + batchId);
+    }
+
+    private static void writeAtomically(Dataset<Row> rows, Path target) {
+        Path staging = target.resolveSibling(target.getFileName() + STAGING_SUFFIX);
+        try {
+            rows.write().mode(SaveMode.Overwrite).parquet(staging.toString());
+            // Readers and recovery only ever see complete directories
+            deleteRecursively(target);
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteRecursively(staging);
+            throw new UncheckedIOException("Cannot write feature data to " + target, e);
+        } catch (RuntimeException e) {
+            deleteRecursively(staging);
+            throw e;
+        }
+    }
+
+    /**
+     * Children of a directory whose names match the pattern, ordered by their numeric id if any.
+     */
+    private static List<Path> list(Path directory, Pattern name) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(directory)) {
+            return children
+                    .filter(path -> name.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(path -> idOf(path, name)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long idOf(Path path, Pattern name) {
+        Matcher matcher = name.matcher(path.getFileName().toString());
+        return matcher.matches() && matcher.groupCount() > 0 ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static void deleteRecursively(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    logger.warn("⚠️ Could not delete {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not delete feature directory {}", root, e);
+        }
+    }
+
+    /**
+     * Applies a user's new events to its state and emits the refreshed feature row.
+     */
+    static class FeatureUpdateFunction implements FlatMapGroupsWithStateFunction<String, Row, FeatureState, UserFeatures> {
+        private final long idleTimeoutMs;
+
+        FeatureUpdateFunction(long idleTimeoutMs) {
+            this.idleTimeoutMs = idleTimeoutMs;
+        }
+
+        @Override
+        public Iterator<UserFeatures> call(String userId, Iterator<Row> events, GroupState<FeatureState> state) {
+            if (state.hasTimedOut()) {
+                state.remove();
+                return Collections.singletonList(UserFeatures.tombstone(userId)).iterator();
+            }
+
+            FeatureState current = state.exists() ? state.get() : new FeatureState();
+            while (events.hasNext()) {
+                current.add(events.next());
+            }
+
+            state.update(current);
+            state.setTimeoutDuration(idleTimeoutMs);
+            return Collections.singletonList(current.toFeatures(userId)).iterator();
+        }
+    }
+
+    /**
+     * Per-user state; Welford's algorithm keeps mean and variance exact without replaying events.
+     */
+    public static class FeatureState implements Serializable {
+        long totalEvents;
+        long hourSamples;
+        double hourMean;
+        double hourM2;
+        Map<String, Long> eventTypeCounts = new HashMap<>();
+        Set<String> sessionIds = new HashSet<>();
+
+        void add(Row event) {
+            String eventType = event.getAs("eventType");
+            String sessionId = event.getAs("sessionId");
+            Integer hour = event.getAs("hour");
+
+            totalEvents++;
+            if (eventType != null) {
+                eventTypeCounts.merge(eventType, 1L, Long::sum);
+            }
+            if (sessionId != null && sessionIds.size() < MAX_TRACKED_SESSIONS) {
+                sessionIds.add(sessionId);
+            }
+            if (hour != null) {
+                hourSamples++;
+                double delta = hour - hourMean;
+                hourMean += delta / hourSamples;
+                hourM2 += delta * (hour - hourMean);
+            }
+        }
+
+        UserFeatures toFeatures(String userId) {
+            UserFeatures features = new UserFeatures();
+            features.setUserId(userId);
+            features.setTotalEvents(totalEvents);
+            features.setSessions(sessionIds.size());
+            features.setAvgActiveHour(hourMean);
+            // Sample standard deviation, matching functions.stddev
+            features.setHourVariability(hourSamples > 1 ? Math.sqrt(hourM2 / (hourSamples - 1)) : 0.0);
+            features.setRegistrations(eventTypeCounts.getOrDefault("USER_REGISTERED", 0L));
+            features.setLogins(eventTypeCounts.getOrDefault("USER_LOGIN", 0L));
+            features.setSearches(eventTypeCounts.getOrDefault("USER_SEARCH", 0L));
+            features.setEventTypeCounts(new HashMap<>(eventTypeCounts));
+            return features;
+        }
+    }
+
+    /**
+     * Feature row emitted per user; column names match {@link SegmentationModelTrainer#FEATURE_COLUMNS}.
+     */
+    public static class UserFeatures implements Serializable {
+        private String userId;
+        private long totalEvents;
+        private long sessions;
+        private double avgActiveHour;
+        private double hourVariability;
+        private long registrations;
+        private long logins;
+        private long searches;
+        private Map<String, Long> eventTypeCounts;
+        private boolean expired;
+
+        public UserFeatures() {}
+
+        static UserFeatures tombstone(String userId) {
+            UserFeatures features = new UserFeatures();
+            features.setUserId(userId);
+            features.setEventTypeCounts(Collections.emptyMap());
+            features.setExpired(true);
+            return features;
+        }
+
+        public String getUserId() { return userId; }
+        public void setUserId(String userId) { this.userId = userId; }
+
+        public long getTotalEvents() { return totalEvents; }
+        public void setTotalEvents(long totalEvents) { this.totalEvents = totalEvents; }
+
+        public long getSessions() { return sessions; }
+        public void setSessions(long sessions) { this.sessions = sessions; }
+
+        public double getAvgActiveHour() { return avgActiveHour; }
+        public void setAvgActiveHour(double avgActiveHour) { this.avgActiveHour = avgActiveHour; }
+
+        public double getHourVariability() { return hourVariability; }
+        public void setHourVariability(double hourVariability) { this.hourVariability = hourVariability; }
+
+        public long getRegistrations() { return registrations; }
+        public void setRegistrations(long registrations) { this.registrations = registrations; }
+
+        public long getLogins() { return logins; }
+        public void setLogins(long logins) { this.logins = logins; }
+
+        public long getSearches() { return searches; }
+        public void setSearches(long searches) { this.searches = searches; }
+
+        public Map<String, Long> getEventTypeCounts() { return eventTypeCounts; }
+        public void setEventTypeCounts(Map<String, Long> eventTypeCounts) { this.eventTypeCounts = eventTypeCounts; }
+
+        public boolean isExpired() { return expired; }
+        public void setExpired(boolean expired) { this.expired = expired; }
+    }
+}
@@ -0,0 +1,36 @@
+package com.enterprise.java.streaming.util;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the publish time the User Service stamps on every user event.
+ */
+public final class PublishTimestamps {
+
+    /**
+     * Record header holding the publish time in epoch milliseconds (ASCII digits).
+     */
+    public static final String HEADER = "published-at";
+
+    private PublishTimestamps() {
+    }
+
+    /**
+     * Publish time from the header, falling back to the record's own timestamp for
+     * producers that do not set it.
+     */
+    public static long fromRecord(Headers headers, long recordTimestamp) {
+        Header header = headers.lastHeader(HEADER);
+        if (header != null && header.value() != null) {
+            try {
+                return Long.parseLong(new String(header.value(), StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                // Malformed header; the record timestamp is still a close approximation
+            }
+        }
+        return recordTimestamp;
+    }
+}
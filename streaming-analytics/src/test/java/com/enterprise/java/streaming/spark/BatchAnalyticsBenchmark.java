@@ -0,0 +1,108 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Stand-alone benchmark for {@link BatchAnalyticsJobs} in local[*] mode.
+ *
+ * Generates a synthetic event lake (100M events over 30 days by default, with 5% of
+ * events concentrated on a handful of hot users to exercise skew-join handling),
+ * then times each report. Not part of the unit test run; launch it explicitly:
+ *
+ * <pre>
+ * mvn -pl streaming-analytics test-compile exec:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.enterprise.java.streaming.spark.BatchAnalyticsBenchmark \
+ *     -Dexec.args="100000000 /tmp/batch-benchmark"
+ * </pre>
+ */
+public class BatchAnalyticsBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalyticsBenchmark.class);
+
+    private static final int DAYS = 30;
+    private static final long USERS = 1_000_000L;
+    private static final long HOT_USERS = 10L;
+    private static final String[] EVENT_TYPES = {
+            "USER_LOGIN", "USER_SEARCH", "USER_UPDATED", "USER_REGISTERED", "USER_LOGIN_FAILED", "USER_LOGOUT"};
+
+    public static void main(String[] args) {
+        long eventCount = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        String workDir = args.length > 1 ? args[1] : "/tmp/batch-analytics-benchmark";
+
+        SparkSession spark = SparkSession.builder()
+                .appName("Batch-Analytics-Benchmark")
+                .master("local[*]")
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("WARN");
+
+        try {
+            String lakePath = workDir + "/lake";
+            long generationStart = System.nanoTime();
+            generateLake(spark, eventCount, lakePath);
+            logger.info("🧪 Generated {} events in {} ms", eventCount, (System.nanoTime() - generationStart) / 1_000_000);
+
+            BatchAnalyticsConfig config = BatchAnalyticsConfig.builder()
+                    .reportPath(workDir + "/reports")
+                    .build();
+            BatchAnalyticsJobs jobs = new BatchAnalyticsJobs(spark, config);
+
+            LocalDate end = LocalDate.of(2024, 1, 1).plusDays(DAYS - 1);
+            Dataset<Row> events = new HistoricalEventLake(spark, lakePath)
+                    .readEvents(jobs.session(), end.minusDays(DAYS - 1), end,
+                            "userId", "eventType", "sessionId",
+                            HistoricalEventLake.DATE_COLUMN, HistoricalEventLake.HOUR_COLUMN);
+
+            Map<String, Long> durations = jobs.runAll(events);
+
+            long total = durations.values().stream().mapToLong(Long::longValue).sum();
+            durations.forEach((report, ms) -> logger.info("⏱️ {}: {} ms", report, ms));
+            logger.info("⏱️ total: {} ms for {} events ({} events/s)", total, eventCount,
+                    total > 0 ? eventCount * 1000 / total : 0);
+        } finally {
+            spark.stop();
+        }
+    }
+
+    private static void generateLake(SparkSession spark, long eventCount, String lakePath) {
+        Column id = functions.col("id");
+
+        // 5% of events belong to a few hot users, the rest are spread uniformly
+        Column userId = functions.when(id.mod(20).equalTo(0),
+                        functions.concat(functions.lit("hot-user-"), id.mod(HOT_USERS).cast("string")))
+                .otherwise(functions.concat(functions.lit("user-"), id.multiply(7919).mod(USERS).cast("string")));
+
+        Column eventType = functions.element_at(
+                functions.array(java.util.Arrays.stream(EVENT_TYPES).map(functions::lit).toArray(Column[]::new)),
+                id.mod(EVENT_TYPES.length).plus(1).cast("int"));
+
+        long secondsInRange = DAYS * 24L * 3600L;
+        Column timestamp = functions.timestamp_seconds(
+                functions.lit(LocalDate.of(2024, 1, 1).toEpochDay() * 86_400L).plus(id.multiply(104_729).mod(secondsInRange)));
+
+        spark.range(eventCount)
+                .select(
+                        userId.alias("userId"),
+                        eventType.alias("eventType"),
+                        timestamp.alias("timestamp"),
+                        functions.concat(functions.lit("session-"), id.divide(25).cast("long").cast("string")).alias("sessionId"))
+                .withColumn(HistoricalEventLake.DATE_COLUMN, functions.to_date(functions.col("timestamp")))
+                .withColumn(HistoricalEventLake.HOUR_COLUMN, functions.hour(functions.col("timestamp")))
+                .repartition(functions.col(HistoricalEventLake.DATE_COLUMN))
+                .sortWithinPartitions("userId", "timestamp")
+                .write()
+                .mode(SaveMode.Overwrite)
+                .partitionBy(HistoricalEventLake.DATE_COLUMN, HistoricalEventLake.HOUR_COLUMN)
+                .parquet(lakePath);
+    }
+}
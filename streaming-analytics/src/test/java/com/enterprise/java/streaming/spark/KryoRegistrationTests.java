@@ -0,0 +1,226 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.api.java.function.VoidFunction2;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.Trigger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the streaming and batch paths in local mode with the default session profile,
+ * i.e. with {@code spark.kryo.registrationRequired=true}: any class shipped through Kryo
+ * but missing from {@link AnalyticsKryoRegistrator} fails its task and thus the test.
+ *
+ * Two executor threads make sure shuffles, broadcasts and task results actually go
+ * through the serializer.
+ */
+class KryoRegistrationTests {
+
+    private static final String[] EVENT_TYPES = {
+            "USER_LOGIN", "USER_SEARCH", "USER_UPDATED", "USER_REGISTERED", "USER_LOGIN_FAILED", "USER_LOGOUT"};
+    private static final int USERS = 40;
+
+    @TempDir
+    static Path workDir;
+
+    private static SparkSession spark;
+
+    @BeforeAll
+    static void startSpark() {
+        SparkSessionProfile profile = SparkSessionProfile.builder()
+                .appName("Kryo-Registration-Tests")
+                .master("local[2]")
+                .checkpointLocation(workDir.resolve("checkpoint").toString())
+                .warehouseDir(workDir.resolve("warehouse").toString())
+                .offHeapSize("64m")
+                .shufflePartitions(4)
+                .build();
+        assertTrue(profile.isKryoRegistrationRequired(), "registration must be required by default");
+
+        spark = SparkSession.builder()
+                .config(profile.toSparkConf())
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("WARN");
+    }
+
+    @AfterAll
+    static void stopSpark() {
+        if (spark != null) {
+            spark.stop();
+        }
+    }
+
+    @Test
+    void streamingPathRunsWithRegistrationRequired() throws Exception {
+        String checkpoint = workDir.resolve("checkpoint").toString();
+        Dataset<Row> userEvents = syntheticStream();
+
+        UserFeatureStore featureStore = new UserFeatureStore(spark, "kryo_test_features",
+                checkpoint + "/feature-snapshot", Duration.ofHours(24), Duration.ZERO);
+        SegmentationModelTrainer modelTrainer = new SegmentationModelTrainer(spark, featureStore::snapshot,
+                workDir.resolve("models").toString(), Duration.ofHours(1), 10_000, 2, null);
+        AtomicLong scoredPatterns = new AtomicLong();
+        SegmentScoringStage scoringStage = new SegmentScoringStage(spark, modelTrainer,
+                (batchId, patterns) -> scoredPatterns.addAndGet(patterns.count()), 0.8);
+        HistoricalEventLake eventLake = new HistoricalEventLake(spark, workDir.resolve("lake").toString());
+
+        List<StreamingQuery> queries = new ArrayList<>();
+        try {
+            // Windowed aggregation into the default console sink
+            queries.add(SparkStreamAnalyzer.performRealTimeAnalytics(userEvents)
+                    .writeStream()
+                    .queryName("kryo_test_analytics")
+                    .outputMode("update")
+                    .format("console")
+                    .option("checkpointLocation", checkpoint + "/analytics")
+                    .trigger(Trigger.ProcessingTime("1 second"))
+                    .start());
+
+            // Kryo-encoded feature state, Parquet snapshots and segment scoring
+            queries.add(featureStore.updates(userEvents)
+                    .writeStream()
+                    .queryName("kryo_test_features")
+                    .outputMode("update")
+                    .option("checkpointLocation", checkpoint + "/user-features")
+                    .foreachBatch((VoidFunction2<Dataset<Row>, Long>) (updates, batchId) -> {
+                        updates.persist();
+                        try {
+                            featureStore.applyBatch(updates, batchId);
+                            scoringStage.scoreBatch(updates.filter(functions.not(functions.col("expired"))), batchId);
+                        } finally {
+                            updates.unpersist();
+                        }
+                    })
+                    .trigger(Trigger.ProcessingTime("1 second"))
+                    .start());
+
+            // Partitioned Parquet writes into the event lake
+            queries.add(eventLake.startIngestion(userEvents, checkpoint + "/event-lake", "1 second"));
+
+            awaitBatches(queries);
+            assertTrue(modelTrainer.retrain(), "model should train on the streamed features");
+            awaitBatches(queries);
+
+            assertTrue(scoredPatterns.get() > 0, "changed users should be scored with the trained model");
+        } finally {
+            for (StreamingQuery query : queries) {
+                query.stop();
+            }
+            modelTrainer.close();
+            eventLake.close();
+        }
+
+        LocalDate today = LocalDate.now();
+        assertTrue(eventLake.readEvents(today.minusDays(1), today.plusDays(1)).count() > 0);
+    }
+
+    @Test
+    void batchPathRunsWithRegistrationRequired() throws Exception {
+        LocalDate end = LocalDate.of(2024, 1, 7);
+        String lakePath = workDir.resolve("batch-lake").toString();
+        writeLake(end.minusDays(6), 50_000, lakePath);
+
+        BatchAnalyticsJobs jobs = new BatchAnalyticsJobs(spark, BatchAnalyticsConfig.builder()
+                .reportPath(workDir.resolve("reports").toString())
+                .build());
+        Dataset<Row> events = new HistoricalEventLake(spark, lakePath)
+                .readEvents(jobs.session(), end.minusDays(6), end,
+                        "userId", "eventType", "timestamp", "sessionId",
+                        HistoricalEventLake.DATE_COLUMN, HistoricalEventLake.HOUR_COLUMN);
+
+        Map<String, Long> durations = jobs.runAll(events);
+        assertEquals(List.of("daily_trends", "hourly_trends", "retention_cohorts", "anomaly_baselines"),
+                new ArrayList<>(durations.keySet()));
+
+        // KMeans on a batch feature table, then a reload of the persisted model
+        Dataset<Row> features = jobs.session().range(500)
+                .select(Arrays.stream(SegmentationModelTrainer.FEATURE_COLUMNS)
+                        .map(column -> functions.rand(column.hashCode()).multiply(100).alias(column))
+                        .toArray(Column[]::new));
+        String modelDirectory = workDir.resolve("batch-models").toString();
+        try (SegmentationModelTrainer trainer = new SegmentationModelTrainer(
+                jobs.session(), () -> features, modelDirectory, Duration.ofHours(1), 500, 4, null)) {
+            assertTrue(trainer.retrain());
+        }
+        try (SegmentationModelTrainer reloaded = new SegmentationModelTrainer(
+                jobs.session(), () -> features, modelDirectory, Duration.ofHours(1), 500, 4, null)) {
+            reloaded.start();
+            assertEquals(1, reloaded.getModelVersion());
+        }
+    }
+
+    // Processes two micro-batches with new rows in every query, so state is written and reloaded
+    private static void awaitBatches(List<StreamingQuery> queries) throws Exception {
+        for (int round = 0; round < 2; round++) {
+            Thread.sleep(1_500);
+            for (StreamingQuery query : queries) {
+                query.processAllAvailable();
+            }
+        }
+    }
+
+    private static Dataset<Row> syntheticStream() {
+        Column value = functions.col("value");
+        return spark.readStream()
+                .format("rate")
+                .option("rowsPerSecond", 200)
+                .option("numPartitions", 2)
+                .load()
+                .select(
+                        functions.concat(functions.lit("user-"), value.mod(USERS).cast("string")).alias("userId"),
+                        eventType(value).alias("eventType"),
+                        functions.col("timestamp"),
+                        functions.map(functions.lit("source"), functions.lit("kryo-test")).alias("metadata"),
+                        functions.concat(functions.lit("session-"), value.divide(50).cast("long").cast("string")).alias("sessionId"),
+                        functions.lit("10.0.0.1").alias("ipAddress"))
+                // Same time columns as the analyzer derives from the parsed events
+                .withColumn("hour", functions.hour(functions.col("timestamp")))
+                .withColumn("dayOfWeek", functions.dayofweek(functions.col("timestamp")));
+    }
+
+    private static void writeLake(LocalDate start, long eventCount, String lakePath) {
+        Column id = functions.col("id");
+        long secondsInRange = 7 * 24L * 3600L;
+        Column timestamp = functions.timestamp_seconds(
+                functions.lit(start.toEpochDay() * 86_400L).plus(id.multiply(104_729).mod(secondsInRange)));
+
+        spark.range(eventCount)
+                .select(
+                        functions.concat(functions.lit("user-"), id.multiply(7919).mod(USERS * 25).cast("string")).alias("userId"),
+                        eventType(id).alias("eventType"),
+                        timestamp.alias("timestamp"),
+                        functions.concat(functions.lit("session-"), id.divide(25).cast("long").cast("string")).alias("sessionId"))
+                .withColumn(HistoricalEventLake.DATE_COLUMN, functions.to_date(functions.col("timestamp")))
+                .withColumn(HistoricalEventLake.HOUR_COLUMN, functions.hour(functions.col("timestamp")))
+                .write()
+                .mode(SaveMode.Overwrite)
+                .partitionBy(HistoricalEventLake.DATE_COLUMN, HistoricalEventLake.HOUR_COLUMN)
+                .parquet(lakePath);
+    }
+
+    private static Column eventType(Column sequence) {
+        return functions.element_at(
+                functions.array(Arrays.stream(EVENT_TYPES).map(functions::lit).toArray(Column[]::new)),
+                sequence.mod(EVENT_TYPES.length).plus(1).cast("int"));
+    }
+}
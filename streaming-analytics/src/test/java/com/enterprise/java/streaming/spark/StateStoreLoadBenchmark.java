@@ -0,0 +1,204 @@
+package com.enterprise.java.streaming.spark;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.streaming.StateOperatorProgress;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.StreamingQueryListener;
+import org.apache.spark.sql.streaming.StreamingQueryProgress;
+import org.apache.spark.sql.streaming.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for the streaming state stores in local[*] mode.
+ *
+ * Feeds a rate source with an ever-growing user id space through the same stateful
+ * queries the analyzer runs: the windowed real-time aggregation and the per-user
+ * feature store. Every micro-batch logs state rows, state memory, batch duration,
+ * driver heap and GC time spent since the previous batch; a summary follows at the
+ * end. In local mode the executors share the driver JVM, so the GC figures cover
+ * the state store work. Run once per profile to compare:
+ *
+ * <pre>
+ * mvn -pl streaming-analytics test-compile exec:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.enterprise.java.streaming.spark.StateStoreLoadBenchmark \
+ *     -Dexec.args="ROCKSDB true 50000 10 /tmp/state-store-benchmark"
+ * </pre>
+ *
+ * Arguments: state store (HDFS or ROCKSDB), changelog checkpointing, rows per second,
+ * duration in minutes, work directory.
+ */
+public class StateStoreLoadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateStoreLoadBenchmark.class);
+
+    private static final int EVENTS_PER_USER = 4;
+    private static final String[] EVENT_TYPES = {
+            "USER_LOGIN", "USER_SEARCH", "USER_UPDATED", "USER_REGISTERED", "USER_LOGIN_FAILED", "USER_LOGOUT"};
+
+    public static void main(String[] args) throws Exception {
+        SparkSessionProfile.StateStore stateStore = args.length > 0
+                ? SparkSessionProfile.StateStore.valueOf(args[0]) : SparkSessionProfile.StateStore.ROCKSDB;
+        boolean changelog = args.length <= 1 || Boolean.parseBoolean(args[1]);
+        long rowsPerSecond = args.length > 2 ? Long.parseLong(args[2]) : 50_000L;
+        long minutes = args.length > 3 ? Long.parseLong(args[3]) : 10L;
+        String workDir = args.length > 4 ? args[4] : "/tmp/state-store-benchmark";
+
+        SparkSessionProfile profile = SparkSessionProfile.builder()
+                .appName("State-Store-Benchmark")
+                .checkpointLocation(workDir + "/" + stateStore + (changelog ? "-changelog" : "") + "-" + System.currentTimeMillis())
+                .warehouseDir(workDir + "/warehouse")
+                .stateStore(stateStore)
+                .changelogCheckpointing(changelog)
+                .build();
+
+        SparkSession spark = SparkSession.builder()
+                .config(profile.toSparkConf())
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("WARN");
+
+        StateMetricsListener listener = new StateMetricsListener();
+        spark.streams().addListener(listener);
+        logger.info("🧪 State store benchmark: {} at {} rows/s for {} min", profile, rowsPerSecond, minutes);
+
+        try {
+            Dataset<Row> userEvents = syntheticEvents(spark, rowsPerSecond);
+
+            StreamingQuery windowQuery = SparkStreamAnalyzer.performRealTimeAnalytics(userEvents)
+                    .writeStream()
+                    .queryName("windowed_analytics")
+                    .outputMode("update")
+                    .format("noop")
+                    .option("checkpointLocation", profile.getCheckpointLocation() + "/windowed-analytics")
+                    .trigger(Trigger.ProcessingTime("10 seconds"))
+                    .start();
+
+            StreamingQuery featureQuery = new UserFeatureStore(spark, "benchmark_features",
+                    profile.getCheckpointLocation() + "/user-features/feature-snapshot", Duration.ofHours(24), Duration.ofMinutes(5))
+                    .updates(userEvents)
+                    .writeStream()
+                    .queryName("user_features")
+                    .outputMode("update")
+                    .format("noop")
+                    .option("checkpointLocation", profile.getCheckpointLocation() + "/user-features")
+                    .trigger(Trigger.ProcessingTime("10 seconds"))
+                    .start();
+
+            windowQuery.awaitTermination(TimeUnit.MINUTES.toMillis(minutes));
+            featureQuery.stop();
+            windowQuery.stop();
+
+            listener.logSummary();
+        } finally {
+            spark.stop();
+        }
+    }
+
+    private static Dataset<Row> syntheticEvents(SparkSession spark, long rowsPerSecond) {
+        Column value = functions.col("value");
+
+        // A new user every few events, none ever returning: the distinct key count grows
+        // for the whole run and the 24h feature timeout never evicts anything
+        Column userId = functions.concat(functions.lit("user-"), value.divide(EVENTS_PER_USER).cast("long").cast("string"));
+
+        Column eventType = functions.element_at(
+                functions.array(Arrays.stream(EVENT_TYPES).map(functions::lit).toArray(Column[]::new)),
+                value.mod(EVENT_TYPES.length).plus(1).cast("int"));
+
+        return spark.readStream()
+                .format("rate")
+                .option("rowsPerSecond", rowsPerSecond)
+                .load()
+                .select(
+                        userId.alias("userId"),
+                        eventType.alias("eventType"),
+                        functions.col("timestamp"),
+                        functions.concat(functions.lit("session-"), value.divide(2).cast("long").cast("string")).alias("sessionId"))
+                .withColumn("hour", functions.hour(functions.col("timestamp")))
+                .withColumn("dayOfWeek", functions.dayofweek(functions.col("timestamp")));
+    }
+
+    /**
+     * Logs per-batch state and GC figures and keeps the peaks for the summary.
+     */
+    private static class StateMetricsListener extends StreamingQueryListener {
+
+        private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong lastGcTimeMs = new AtomicLong(totalGcTimeMs());
+        private final long startGcTimeMs = lastGcTimeMs.get();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong totalBatchMs = new AtomicLong();
+        private final AtomicLong maxBatchMs = new AtomicLong();
+        private final AtomicLong maxStateRows = new AtomicLong();
+        private final AtomicLong maxStateMemoryBytes = new AtomicLong();
+        private final AtomicLong maxHeapUsedBytes = new AtomicLong();
+
+        @Override
+        public void onQueryStarted(QueryStartedEvent event) {
+        }
+
+        @Override
+        public void onQueryProgress(QueryProgressEvent event) {
+            StreamingQueryProgress progress = event.progress();
+            Long batchMs = progress.durationMs().get("triggerExecution");
+            if (batchMs == null || progress.numInputRows() == 0) {
+                return;
+            }
+
+            long stateRows = 0;
+            long stateMemoryBytes = 0;
+            for (StateOperatorProgress operator : progress.stateOperators()) {
+                stateRows += operator.numRowsTotal();
+                stateMemoryBytes += operator.memoryUsedBytes();
+            }
+            long heapUsedBytes = memoryBean.getHeapMemoryUsage().getUsed();
+            long gcTimeMs = totalGcTimeMs();
+            long gcDeltaMs = gcTimeMs - lastGcTimeMs.getAndSet(gcTimeMs);
+
+            batches.incrementAndGet();
+            totalBatchMs.addAndGet(batchMs);
+            maxBatchMs.accumulateAndGet(batchMs, Math::max);
+            maxStateRows.accumulateAndGet(stateRows, Math::max);
+            maxStateMemoryBytes.accumulateAndGet(stateMemoryBytes, Math::max);
+            maxHeapUsedBytes.accumulateAndGet(heapUsedBytes, Math::max);
+
+            logger.info("📊 {} batch {}: {} rows in {} ms, state rows={}, state memory={} MB, heap={} MB, GC +{} ms",
+                    progress.name(), progress.batchId(), progress.numInputRows(), batchMs,
+                    stateRows, stateMemoryBytes / (1024 * 1024), heapUsedBytes / (1024 * 1024), gcDeltaMs);
+        }
+
+        @Override
+        public void onQueryTerminated(QueryTerminatedEvent event) {
+        }
+
+        void logSummary() {
+            long batchCount = batches.get();
+            logger.info("⏱️ {} batches, avg {} ms, max {} ms", batchCount,
+                    batchCount > 0 ? totalBatchMs.get() / batchCount : 0, maxBatchMs.get());
+            logger.info("⏱️ peak state rows={}, peak state memory={} MB, peak heap={} MB, total GC {} ms",
+                    maxStateRows.get(), maxStateMemoryBytes.get() / (1024 * 1024),
+                    maxHeapUsedBytes.get() / (1024 * 1024), totalGcTimeMs() - startGcTimeMs);
+        }
+
+        private static long totalGcTimeMs() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(0, gc.getCollectionTime());
+            }
+            return total;
+        }
+    }
+}